@@ -21,6 +21,7 @@
  */
 package de.ibapl.onewire4j;
 
+import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
 import de.ibapl.spsw.api.SerialPortSocket;
 import java.io.IOException;
 
@@ -42,12 +43,31 @@ public class AdapterFactory {
      * @throws IOException on error.
      */
     public OneWireAdapter open(SerialPortSocket serialPortSocket, int tries) throws IOException {
+        return open(serialPortSocket, tries, SerialPortSpeed.SPS_9_6);
+    }
+
+    /**
+     * Choose and create an adapter, open the port, raise the speed of the
+     * serial port up to maxSerialPortSpeed and return the opened adapter.
+     *
+     *
+     * @param serialPortSocket the serial port to use.
+     * @param tries number of tries to make this more fault tolerant.
+     * @param maxSerialPortSpeed the highest speed of the serial port to try.
+     * @return the created and opened adapter.
+     * @throws IOException on error.
+     */
+    public OneWireAdapter open(SerialPortSocket serialPortSocket, int tries, SerialPortSpeed maxSerialPortSpeed) throws IOException {
         if (tries <= 0) {
             throw new IllegalArgumentException("Tries must be greater 0");
         }
         for (int i = tries; i > 0; i--) {
             try {
-                return new DS2480BAdapter(serialPortSocket);
+                if (maxSerialPortSpeed == SerialPortSpeed.SPS_9_6) {
+                    return new DS2480BAdapter(serialPortSocket);
+                } else {
+                    return new DS2480BAdapter(serialPortSocket, maxSerialPortSpeed);
+                }
             } catch (Throwable t) {
                 if (i == 0) {
                     throw t;
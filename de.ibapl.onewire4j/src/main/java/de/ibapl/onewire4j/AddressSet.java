@@ -0,0 +1,120 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import java.util.Arrays;
+
+/**
+ * A set of addresses in an open addressing hash table like the one of
+ * {@linkplain DeviceRegistry}, so adding and looking up an address does not
+ * box. The address 0 can't be added, there is no family code 0.
+ *
+ * This class is not thread safe.
+ *
+ * @author Arne Plöse
+ */
+class AddressSet {
+
+    /**
+     * Marks an empty slot.
+     */
+    private final static long EMPTY = 0L;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long address) {
+        return address != EMPTY && slotOf(address) >= 0;
+    }
+
+    /**
+     * Adds the address.
+     *
+     * @param address the address to add.
+     * @return true if the address was not in this set.
+     */
+    boolean add(long address) {
+        if (address == EMPTY) {
+            throw new IllegalArgumentException("Not a device address: 0");
+        }
+        if (slotOf(address) >= 0) {
+            return false;
+        }
+        if ((size + 1) * 4 > addresses.length * 3) {
+            resize(addresses.length * 2);
+        }
+        insert(address);
+        return true;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(addresses, EMPTY);
+            size = 0;
+        }
+    }
+
+    private int indexOf(long address, int length) {
+        // Fibonacci hashing, the upper bits are spread best
+        return (int) ((address * 0x9e3779b97f4a7c15L) >>> (64 - Integer.numberOfTrailingZeros(length)));
+    }
+
+    private int slotOf(long address) {
+        final int mask = addresses.length - 1;
+        for (int slot = indexOf(address, addresses.length);; slot = (slot + 1) & mask) {
+            if (addresses[slot] == address) {
+                return slot;
+            }
+            if (addresses[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(long address) {
+        final int mask = addresses.length - 1;
+        int slot = indexOf(address, addresses.length);
+        while (addresses[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        addresses[slot] = address;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        final long[] oldAddresses = addresses;
+        addresses = new long[capacity];
+        size = 0;
+        for (long address : oldAddresses) {
+            if (address != EMPTY) {
+                insert(address);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice1f;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The topology of a bus with DS2409 MicroLAN couplers. The bus is split into
+ * segments, the root segment and a segment for each branch of a coupler.
+ * Couplers on a branch are supported too. Every segment is searched
+ * separately and every address is mapped to its segment. Before a device is
+ * used its segment is connected, only the couplers which differ from the
+ * currently connected path are switched. So a search or read costs only the
+ * load of the segments on the path.
+ *
+ * This class is not thread safe, use it within
+ * {@linkplain LockingOneWireAdapter#withBus(LockingOneWireAdapter.BusOperation)}
+ * if the adapter is shared.
+ *
+ * @author Arne Plöse
+ */
+public class CouplerTopology {
+
+    private final static int COUPLER_FAMILY_CODE = 0x1f;
+
+    /**
+     * A part of the bus, the root segment or the branch of a coupler.
+     */
+    public static class Segment {
+
+        private final Segment parent;
+        private final OneWireDevice1f coupler;
+        private final OneWireDevice1f.Branch branch;
+        private final int depth;
+        private final List<Long> addresses = new ArrayList<>();
+
+        private Segment(Segment parent, OneWireDevice1f coupler, OneWireDevice1f.Branch branch) {
+            this.parent = parent;
+            this.coupler = coupler;
+            this.branch = branch;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        /**
+         * Returns the segment the coupler is on.
+         *
+         * @return the parent or null for the root segment.
+         */
+        public Segment getParent() {
+            return parent;
+        }
+
+        /**
+         * Returns the coupler which connects this segment.
+         *
+         * @return the coupler or null for the root segment.
+         */
+        public OneWireDevice1f getCoupler() {
+            return coupler;
+        }
+
+        public OneWireDevice1f.Branch getBranch() {
+            return branch;
+        }
+
+        /**
+         * Returns the addresses found on this segment, the couplers included.
+         *
+         * @return the addresses.
+         */
+        public List<Long> getAddresses() {
+            return Collections.unmodifiableList(addresses);
+        }
+
+        @Override
+        public String toString() {
+            return parent == null ? "root" : parent + "/" + coupler.getAddressAsString() + ":" + branch;
+        }
+
+    }
+
+    private final Segment root = new Segment(null, null, null);
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Long, Segment> segmentOf = new HashMap<>();
+    private Segment connected;
+
+    public CouplerTopology() {
+        segments.add(root);
+    }
+
+    public Segment getRoot() {
+        return root;
+    }
+
+    public List<Segment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Returns the segment of the device.
+     *
+     * @param address the address of the device.
+     * @return the segment or null if unknown.
+     */
+    public Segment getSegmentOf(long address) {
+        return segmentOf.get(address);
+    }
+
+    /**
+     * Returns the currently connected segment.
+     *
+     * @return the connected segment or null if unknown.
+     */
+    public Segment getConnected() {
+        return connected;
+    }
+
+    /**
+     * Searches the whole bus segment by segment. All branches are
+     * disconnected afterwards.
+     *
+     * @param adapter the adapter to use.
+     * @throws IOException if an error happens.
+     */
+    public void discover(OneWireAdapter adapter) throws IOException {
+        root.addresses.clear();
+        segments.clear();
+        segments.add(root);
+        segmentOf.clear();
+        connected = null;
+        discover(adapter, root, Collections.emptySet(), new HashSet<>());
+        connect(adapter, root);
+    }
+
+    private void discover(OneWireAdapter adapter, Segment segment, Set<Long> parentVisible,
+            Set<Long> switchedOff) throws IOException {
+        connect(adapter, segment);
+        final Set<Long> visible = searchWithCouplersOff(adapter, segment, switchedOff);
+        for (long address : visible) {
+            if (!parentVisible.contains(address)) {
+                segment.addresses.add(address);
+                segmentOf.put(address, segment);
+            }
+        }
+        for (long address : new ArrayList<>(segment.addresses)) {
+            if (isCoupler(address)) {
+                final OneWireDevice1f coupler = new OneWireDevice1f(address);
+                for (OneWireDevice1f.Branch branch : OneWireDevice1f.Branch.values()) {
+                    final Segment child = new Segment(segment, coupler, branch);
+                    segments.add(child);
+                    discover(adapter, child, visible, switchedOff);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches the connected path. Couplers not on the path may still connect
+     * a branch, these are switched off and the search is repeated.
+     */
+    private Set<Long> searchWithCouplersOff(OneWireAdapter adapter, Segment segment, Set<Long> switchedOff)
+            throws IOException {
+        final Set<Long> onPath = new HashSet<>();
+        for (Segment s = segment; s.parent != null; s = s.parent) {
+            onPath.add(s.coupler.getAddress());
+        }
+        while (true) {
+            final Set<Long> visible = new HashSet<>();
+            adapter.searchDevices(SearchCommand.SEARCH_ROM, (long address) -> visible.add(address));
+            boolean repeat = false;
+            for (long address : visible) {
+                if (isCoupler(address) && !onPath.contains(address) && switchedOff.add(address)) {
+                    new OneWireDevice1f(address).allLinesOff(adapter);
+                    repeat = true;
+                }
+            }
+            if (!repeat) {
+                return visible;
+            }
+        }
+    }
+
+    /**
+     * Connects the segment of the device.
+     *
+     * @param adapter the adapter to use.
+     * @param address the address of the device.
+     * @throws IOException if an error happens.
+     * @throws IllegalArgumentException if the device is unknown.
+     */
+    public void connectSegmentOf(OneWireAdapter adapter, long address) throws IOException {
+        final Segment segment = segmentOf.get(address);
+        if (segment == null) {
+            throw new IllegalArgumentException("Unknown device: " + OneWireContainer.addressToString(address));
+        }
+        connect(adapter, segment);
+    }
+
+    /**
+     * Connects the segment of the device and then runs the operation.
+     *
+     * @param <T> the result type.
+     * @param adapter the adapter to use.
+     * @param address the address of the device.
+     * @param operation the operation to run.
+     * @return the result of the operation.
+     * @throws IOException if an error happens.
+     */
+    public <T> T withSegmentOf(OneWireAdapter adapter, long address, LockingOneWireAdapter.BusOperation<T> operation)
+            throws IOException {
+        connectSegmentOf(adapter, address);
+        return operation.apply(adapter);
+    }
+
+    /**
+     * Connects the segment. The couplers of the common path with the
+     * connected segment are kept, below it the couplers of the connected
+     * segment are switched off and the ones of the new segment are switched
+     * on.
+     *
+     * @param adapter the adapter to use.
+     * @param segment the segment to connect.
+     * @throws IOException if an error happens.
+     */
+    public void connect(OneWireAdapter adapter, Segment segment) throws IOException {
+        if (segment == connected) {
+            return;
+        }
+        Segment common;
+        if (connected == null) {
+            // unknown state, switch off all couplers of the root segment
+            for (Segment s : segments) {
+                if (s.parent == root && s.branch == OneWireDevice1f.Branch.MAIN) {
+                    s.coupler.allLinesOff(adapter);
+                }
+            }
+            common = root;
+        } else {
+            common = commonParent(connected, segment);
+            // switch off below the common path, bottom up so no coupler stays on behind a switched off one
+            for (Segment s = connected; s != common; s = s.parent) {
+                s.coupler.allLinesOff(adapter);
+            }
+        }
+        connectDown(adapter, common, segment);
+        connected = segment;
+    }
+
+    private void connectDown(OneWireAdapter adapter, Segment common, Segment segment) throws IOException {
+        if (segment == common) {
+            return;
+        }
+        connectDown(adapter, common, segment.parent);
+        segment.coupler.smartOn(adapter, segment.branch);
+    }
+
+    private static Segment commonParent(Segment a, Segment b) {
+        while (a.depth > b.depth) {
+            a = a.parent;
+        }
+        while (b.depth > a.depth) {
+            b = b.parent;
+        }
+        while (a != b) {
+            a = a.parent;
+            b = b.parent;
+        }
+        return a;
+    }
+
+    private static boolean isCoupler(long address) {
+        return ((int) address & 0xff) == COUPLER_FAMILY_CODE;
+    }
+
+}
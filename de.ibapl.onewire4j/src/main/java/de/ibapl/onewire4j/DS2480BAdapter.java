@@ -25,24 +25,20 @@ import de.ibapl.onewire4j.container.OneWireContainer;
 import de.ibapl.onewire4j.container.OneWireDevice;
 import de.ibapl.onewire4j.request.CommandRequest;
 import de.ibapl.onewire4j.request.OneWireRequest;
-import de.ibapl.onewire4j.request.PulseTerminationRequest;
 import de.ibapl.onewire4j.request.communication.CommunicationRequest;
 import de.ibapl.onewire4j.request.communication.DataToSend;
 import de.ibapl.onewire4j.request.communication.OneWireSpeed;
-import de.ibapl.onewire4j.request.communication.PulsePower;
-import de.ibapl.onewire4j.request.communication.PulseRequest;
-import de.ibapl.onewire4j.request.communication.PulseType;
 import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
 import de.ibapl.onewire4j.request.communication.ResetDeviceResponse;
+import de.ibapl.onewire4j.request.communication.ResetResult;
 import de.ibapl.onewire4j.request.communication.SearchAccelerator;
-import de.ibapl.onewire4j.request.communication.SearchAcceleratorCommand;
 import de.ibapl.onewire4j.request.communication.SingleBitRequest;
-import de.ibapl.onewire4j.request.communication.SingleBitResponse;
 import de.ibapl.onewire4j.request.configuration.CommandType;
 import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
 import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
 import de.ibapl.onewire4j.request.configuration.DataSampleOffsetAndWrite0RecoveryTime;
 import de.ibapl.onewire4j.request.configuration.PullDownSlewRateParam;
+import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 import de.ibapl.onewire4j.request.configuration.Write1LowTime;
 import de.ibapl.onewire4j.request.data.DataRequest;
@@ -81,8 +77,52 @@ public class DS2480BAdapter implements OneWireAdapter {
     private Encoder encoder;
     private final SerialPortSocket serialPort;
     private OneWireSpeed speedFromBaudrate = OneWireSpeed.FLEX;
+    private SerialPortSpeed serialPortSpeed = SerialPortSpeed.SPS_9_6;
     private State state = State.UNKNOWN;
     public final static int DEFAULT_BUFFER_SIZE = 1024;
+    private final static long NO_ADDRESS = 0xffffffffffffffffL;
+
+    /**
+     * The speed of the last reset on the 1-Wire bus.
+     */
+    private OneWireSpeed busSpeed = OneWireSpeed.FLEX;
+    private boolean overdriveEnabled;
+    /**
+     * If the bus is at overdrive speed, the device which was switched with
+     * Overdrive Match ROM, or all overdrive capable devices after Overdrive
+     * Skip ROM.
+     */
+    private long overdriveAddress = NO_ADDRESS;
+    private boolean overdriveSkipRom;
+    /**
+     * The devices which did not answer at overdrive speed.
+     */
+    private final AddressSet overdriveFallbackAddresses = new AddressSet();
+    /**
+     * The device selected by the last ROM command, which can be selected again
+     * with Resume ROM.
+     */
+    private long selectedAddress = NO_ADDRESS;
+    /**
+     * The next data request after a reset is a ROM command.
+     */
+    private boolean romCommandExpected;
+    /**
+     * The Match ROM of the current frame, its address echo is verified after
+     * the frame is decoded.
+     */
+    private DataRequestWithDeviceCommand matchRomRequest;
+    private final OneWireRequestPool requestPool = new OneWireRequestPool();
+    private final OneWireTransaction transaction = new OneWireTransaction(this);
+    private final OneWireRequest<?>[] searchFrame = new OneWireRequest<?>[5];
+
+    /**
+     * The host speeds to try in {@link #negotiateSerialPortSpeed(SerialPortSpeed)}, the fastest first.
+     */
+    private final static SerialPortSpeed[] NEGOTIABLE_SERIAL_PORT_SPEEDS = {
+        SerialPortSpeed.SPS_115_2,
+        SerialPortSpeed.SPS_57_6,
+        SerialPortSpeed.SPS_19_2};
 
     /**
      * Creates a new instance and initialize the serial port with 9600,8,n,1.
@@ -117,16 +157,193 @@ public class DS2480BAdapter implements OneWireAdapter {
         }
     }
 
+    /**
+     * Creates a new instance, initialize the serial port with 9600,8,n,1 and
+     * then raise the speed of the serial port up to maxSerialPortSpeed.
+     *
+     * @see #negotiateSerialPortSpeed(SerialPortSpeed)
+     *
+     * @param serialPortSocket the {@linkplain SerialPortSocket} to use.
+     * @param maxSerialPortSpeed the highest speed of the serial port to try.
+     * @throws java.io.IOException
+     */
+    public DS2480BAdapter(SerialPortSocket serialPortSocket, SerialPortSpeed maxSerialPortSpeed) throws IOException {
+        this(serialPortSocket);
+        try {
+            negotiateSerialPortSpeed(maxSerialPortSpeed);
+        } catch (Exception e) {
+            //Clean up
+            encoder = null;
+            decoder = null;
+            if (serialPort.isOpen()) {
+                serialPort.close();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         serialPort.close();
     }
 
+    /**
+     * Returns the pool of the requests this adapter sends over and over again.
+     * Like the adapter itself, the pool is not thread safe.
+     *
+     * @return the request pool of this adapter.
+     */
+    public OneWireRequestPool getRequestPool() {
+        return requestPool;
+    }
+
+    /**
+     * Returns the transaction of this adapter, cleared. The same transaction
+     * is handed out again, so it is only valid until the next call.
+     *
+     * @return the cleared transaction of this adapter.
+     */
+    @Override
+    public OneWireTransaction transaction() {
+        return transaction.clear();
+    }
+
     @Override
     public OneWireSpeed getSpeedFromBaudrate() {
         return speedFromBaudrate;
     }
 
+    /**
+     * Sets the speed of resets, time slots and the search at regular speed.
+     * The default is {@linkplain OneWireSpeed#FLEX}, it does not change with
+     * the speed of the serial port.
+     *
+     * @param speedFromBaudrate the regular speed, not
+     * {@linkplain OneWireSpeed#OVERDRIVE}.
+     */
+    public void setSpeedFromBaudrate(OneWireSpeed speedFromBaudrate) {
+        if (speedFromBaudrate == OneWireSpeed.OVERDRIVE) {
+            throw new IllegalArgumentException("Overdrive is selected per device, see setOverdriveEnabled");
+        }
+        this.speedFromBaudrate = speedFromBaudrate;
+    }
+
+    @Override
+    public boolean isOverdriveEnabled() {
+        return overdriveEnabled;
+    }
+
+    /**
+     * Enables or disables overdrive speed. Enabling clears the list of devices
+     * that failed to answer at overdrive speed before.
+     *
+     * @param overdriveEnabled
+     */
+    @Override
+    public void setOverdriveEnabled(boolean overdriveEnabled) {
+        this.overdriveEnabled = overdriveEnabled;
+        if (overdriveEnabled) {
+            overdriveFallbackAddresses.clear();
+        }
+    }
+
+    /**
+     * Returns the current speed of the serial port.
+     *
+     * @return the current speed of the serial port.
+     */
+    public SerialPortSpeed getSerialPortSpeed() {
+        return serialPortSpeed;
+    }
+
+    /**
+     * Raise the speed of the serial port. Starting with the highest speed, but
+     * not above maxSerialPortSpeed, the DS2480B is told to switch with a RBR
+     * configuration write, the serial port follows and the new speed is
+     * verified with a RBR configuration read. If that fails the adapter is
+     * reset to 9600 bps and the next lower speed is tried.
+     *
+     * @param maxSerialPortSpeed the highest speed of the serial port to try.
+     * @return the speed the serial port is running with.
+     * @throws IOException if the adapter can't be reset to 9600 bps.
+     */
+    public SerialPortSpeed negotiateSerialPortSpeed(SerialPortSpeed maxSerialPortSpeed) throws IOException {
+        if (toSpeed(maxSerialPortSpeed) == null) {
+            throw new IllegalArgumentException("Can't handle serial port speed: " + maxSerialPortSpeed);
+        }
+        for (SerialPortSpeed sps : NEGOTIABLE_SERIAL_PORT_SPEEDS) {
+            if (sps.ordinal() > maxSerialPortSpeed.ordinal()) {
+                continue;
+            }
+            if (changeSerialPortSpeed(sps)) {
+                return serialPortSpeed;
+            }
+            LOG.log(Level.INFO, "Can''t switch to {0}, fall back to {1}", new Object[]{sps, SerialPortSpeed.SPS_9_6});
+            serialPort.setSpeed(Speed._9600_BPS);
+            // The break resets the DS2480B to 9600 bps
+            init();
+        }
+        return serialPortSpeed;
+    }
+
+    /**
+     * Switch DS2480B and serial port to the new speed and verify this with a
+     * RBR read back.
+     *
+     * @param sps the new speed.
+     * @return true if the speed was changed successfully.
+     * @throws IOException
+     */
+    private boolean changeSerialPortSpeed(SerialPortSpeed sps) throws IOException {
+        readGarbage();
+        if (state == State.DATA) {
+            setState(State.COMMAND);
+        }
+        // The DS2480B sends the response with the new speed, so we can't decode it.
+        encoder.encode(ConfigurationWriteRequest.of(sps));
+        encoder.writeTo(serialPort);
+        try {
+            serialPort.drainOutputBuffer();
+            Thread.sleep(5);
+            serialPort.setSpeed(toSpeed(sps));
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.log(Level.INFO, "Serial port can't handle: " + sps, e);
+            return false;
+        }
+        readGarbage();
+        try {
+            final ConfigurationReadRequest<?> rbr = ConfigurationReadRequest.of(CommandType.RBR);
+            sendCommand(rbr);
+            if (rbr.response != sps) {
+                LOG.log(Level.INFO, "RBR read back: {0} expected: {1}", new Object[]{rbr.response, sps});
+                return false;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.INFO, "RBR read back failed for: " + sps, e);
+            return false;
+        }
+        serialPortSpeed = sps;
+        return true;
+    }
+
+    private static Speed toSpeed(SerialPortSpeed serialPortSpeed) {
+        return switch (serialPortSpeed) {
+            case SPS_9_6 ->
+                Speed._9600_BPS;
+            case SPS_19_2 ->
+                Speed._19200_BPS;
+            case SPS_57_6 ->
+                Speed._57600_BPS;
+            case SPS_115_2 ->
+                Speed._115200_BPS;
+            default ->
+                null;
+        };
+    }
+
     protected void init() throws IOException {
         // Taken from AN192 Figure 2
         setState(State.INITIALIZING);
@@ -148,6 +365,11 @@ public class DS2480BAdapter implements OneWireAdapter {
             throw new RuntimeException(e);
         }
         setState(State.COMMAND);
+        serialPortSpeed = SerialPortSpeed.SPS_9_6;
+        busSpeed = speedFromBaudrate;
+        overdriveAddress = NO_ADDRESS;
+        overdriveSkipRom = false;
+        selectedAddress = NO_ADDRESS;
 
         sendCommands(ConfigurationWriteRequest.of(PullDownSlewRateParam.PDSRC_1_37),
                 ConfigurationWriteRequest.of(Write1LowTime.W1LT_10),
@@ -171,20 +393,8 @@ public class DS2480BAdapter implements OneWireAdapter {
     @Override
     public void searchDevices(byte searchCommand, LongConsumer longConsumer) throws IOException {
         final OWSearchIterator searchIterator = new OWSearchIterator();
-        byte[] data = new byte[16];
-        Arrays.fill(data, (byte) 0);
-        final RawDataRequest searchCommandData = new RawDataRequest(data);
-        final SearchCommand searchCmd = new SearchCommand(searchCommand);
         while (!searchIterator.isSearchFinished()) {
-            sendCommand(ResetDeviceRequest.of(speedFromBaudrate));
-            sendCommands(searchCmd.resetState(),
-                    SearchAcceleratorCommand.of(SearchAccelerator.ON, speedFromBaudrate),
-                    searchCommandData.resetState(),
-                    SearchAcceleratorCommand.of(SearchAccelerator.OFF, speedFromBaudrate));
-
-            searchIterator.interpretSearch(searchCommandData);
-            // check results
-            if (searchIterator.getAddress() == 0xffffffffffffffffL) {
+            if (!sendSearchRequest(searchCommand, searchIterator)) {
                 // nothing found
                 return;
             }
@@ -196,6 +406,25 @@ public class DS2480BAdapter implements OneWireAdapter {
         }
     }
 
+    @Override
+    public boolean sendSearchRequest(byte searchCommand, OWSearchIterator searchIterator) throws IOException {
+        final RawDataRequest searchCommandData = searchIterator.getSearchCommandData();
+        final SearchCommand searchCommandRequest = requestPool.searchCommand(searchCommand);
+        // the reset in the same frame saves a round trip, the frame is reused for every pass
+        searchFrame[0] = requestPool.resetDeviceRequest(speedFromBaudrate);
+        searchFrame[1] = searchCommandRequest;
+        searchFrame[2] = requestPool.searchAcceleratorCommand(SearchAccelerator.ON, speedFromBaudrate);
+        searchFrame[3] = searchCommandData.resetState();
+        searchFrame[4] = requestPool.searchAcceleratorCommand(SearchAccelerator.OFF, speedFromBaudrate);
+        sendCommands(searchFrame);
+        if (!searchCommandRequest.response) {
+            throw new SearchResponseException(String.format("Wrong echo of search command: 0x%02x", searchCommand));
+        }
+        searchIterator.interpretSearch(searchCommandData);
+        // check results
+        return searchIterator.getAddress() != 0xffffffffffffffffL;
+    }
+
     @Override
     public void searchDevices(byte searchCommand, Consumer<OneWireContainer> consumer) throws IOException {
         searchDevices(searchCommand, (long address) -> {
@@ -209,69 +438,75 @@ public class DS2480BAdapter implements OneWireAdapter {
         });
     }
 
+    /**
+     * Sends the byte as 8 single bit commands in one frame and reads the 8
+     * responses with one read.
+     */
     @Override
     public byte sendByte(byte b, OneWireSpeed speed) throws IOException {
-        CommandRequest<?>[] requests = new CommandRequest[8];
-        for (int i = 0; i < 8; i++) {
-            final SingleBitRequest sbr = new SingleBitRequest();
-            sbr.dataToSend = (b & 0x01) == 0x01 ? DataToSend.WRITE_1_OR_READ_BIT : DataToSend.WRITE_0_BIT;
-            b >>= 1;
-            sbr.speed = speed;
-            sbr.armPowerDelivery = false;
-            requests[i] = sbr;
-        }
-        sendCommands(requests);
-        byte result = 0;
-        for (int i = 0; i < 8; i++) {
-            final SingleBitResponse sbr = ((SingleBitRequest) requests[i]).response;
-            switch (sbr.bitResult) {
-                case _O_READ_BACK -> {
-                }
-                case _1_READ_BACK ->
-                    result |= (byte) (0x01 << i);
-                default ->
-                    throw new RuntimeException("Can't handle sbr.bitResult: " + sbr.bitResult);
-            }
+        readGarbage();
+        if (state == State.DATA) {
+            setState(State.COMMAND);
         }
-        return result;
+        encoder.encodeBitsOfByte(b, speed, false);
+        encoder.writeTo(serialPort);
+        decoder.readFully(serialPort, 8);
+        return decoder.decodeBitsOfByte();
     }
 
     // DODO Use Duration??? and Infinite Reset???
     @Override
     public byte sendByteWithPower(byte b, StrongPullupDuration strongPullupDuration, OneWireSpeed speed)
             throws IOException {
-        CommandRequest<?>[] requests = new CommandRequest[9];
-        requests[0] = ConfigurationWriteRequest.of(strongPullupDuration);
-        for (int i = 0; i < 8; i++) {
-            final SingleBitRequest sbr = new SingleBitRequest();
-            sbr.dataToSend = (b & 0x01) == 0x01 ? DataToSend.WRITE_1_OR_READ_BIT : DataToSend.WRITE_0_BIT;
-            b >>= 1;
-            sbr.speed = speed;
-            sbr.armPowerDelivery = i >= 7;
-            requests[i + 1] = sbr;
-        }
-        sendCommands(requests);
-        byte result = 0;
-        for (int i = 0; i < 8; i++) {
-            final SingleBitResponse sbr = ((SingleBitRequest) requests[i + 1]).response;
-            switch (sbr.bitResult) {
-                case _O_READ_BACK -> {
-                }
-                case _1_READ_BACK ->
-                    result |= (byte) (0x01 << i);
-                default ->
-                    throw new RuntimeException("Can't handle sbr.bitResult: " + sbr.bitResult);
-            }
-        }
-        return result;
+        readGarbage();
+        final ConfigurationWriteRequest<StrongPullupDuration> spudRequest = requestPool.strongPullupDurationRequest(strongPullupDuration);
+        encode(spudRequest);
+        encoder.encodeBitsOfByte(b, speed, true);
+        encoder.writeTo(serialPort);
+        decoder.readFully(serialPort, 1 + 8);
+        decoder.decode(spudRequest);
+        return decoder.decodeBitsOfByte();
     }
 
     @Override
     public <R> R sendCommand(OneWireRequest<R> request) throws IOException {
         readGarbage();
+        matchRomRequest = null;
+        encode(request);
+        encoder.writeTo(serialPort);
+
+        decoder.read(serialPort, request);
+        decoder.decode(request);
+        verifySelectedAddress();
+        return request.response;
+    }
+
+    @Override
+    public void sendCommands(OneWireRequest<?>... requests) throws IOException {
+        readGarbage();
+        matchRomRequest = null;
+        final OneWireRequest<?>[] frame = ModeSwitchMinimizer.minimize(requests, state == State.DATA);
+        for (OneWireRequest<?> request : frame) {
+            encode(request);
+        }
+
+        encoder.writeTo(serialPort);
+
+        decoder.readAndDecode(serialPort, frame);
+        verifySelectedAddress();
+    }
+
+    /**
+     * Switch the mode as needed, keep track of the speed of the 1-Wire bus and
+     * the selected device and encode the request.
+     *
+     * @param request
+     * @throws IOException
+     */
+    private void encode(OneWireRequest<?> request) throws IOException {
         switch (state) {
             case COMMAND -> {
-                if (request instanceof DataRequest) {
+                if (ModeSwitchMinimizer.needsDataMode(request)) {
                     setState(State.DATA);
                 }
             }
@@ -283,49 +518,69 @@ public class DS2480BAdapter implements OneWireAdapter {
             default ->
                 throw new IllegalStateException("Can't hande adapter state: " + state);
         }
+        if (request instanceof ResetDeviceRequest resetDeviceRequest && resetDeviceRequest.speed != busSpeed) {
+            // A reset at regular speed brings all devices back from overdrive speed.
+            busSpeed = resetDeviceRequest.speed;
+            overdriveAddress = NO_ADDRESS;
+            overdriveSkipRom = false;
+        }
+        if (request instanceof ResetDeviceRequest) {
+            romCommandExpected = true;
+        } else if (romCommandExpected && request instanceof DataRequest) {
+            romCommandExpected = false;
+            trackSelectedAddress(request);
+        }
         encoder.encode(request);
-        encoder.writeTo(serialPort);
-
-        decoder.read(serialPort, request);
-        decoder.decode(request);
-        return request.response;
     }
 
-    @Override
-    public void sendCommands(OneWireRequest<?>... requests) throws IOException {
-        readGarbage();
-        for (OneWireRequest<?> request : requests) {
-            switch (state) {
-                case COMMAND -> {
-                    if (request instanceof DataRequest) {
-                        setState(State.DATA);
-                    }
+    /**
+     * Match ROM sets the flag for Resume ROM in the device, every other ROM
+     * command except Resume ROM clears it. The address of an Overdrive Match
+     * ROM follows in its own request at overdrive speed, so it is not tracked
+     * here. The Match ROM at overdrive speed after it sets the flag again.
+     * Until the address echo of the Match ROM is verified, no device is
+     * selected.
+     */
+    private void trackSelectedAddress(OneWireRequest<?> romCommand) {
+        if (romCommand instanceof DataRequestWithDeviceCommand request) {
+            switch (request.command) {
+                case Encoder.MATCH_ROM_CMD -> {
+                    selectedAddress = NO_ADDRESS;
+                    matchRomRequest = request;
+                    return;
+                }
+                case Encoder.RESUME_CMD -> {
+                    return;
                 }
-                case DATA -> {
-                    if ((request instanceof CommandRequest) || (request instanceof CommunicationRequest)) {
-                        setState(State.COMMAND);
-                    }
+                default -> {
                 }
-                default ->
-                    throw new IllegalStateException("Can't hande adapter state: " + state);
             }
-            encoder.encode(request);
         }
+        selectedAddress = NO_ADDRESS;
+        matchRomRequest = null;
+    }
 
-        encoder.writeTo(serialPort);
-
-        for (OneWireRequest<?> request : requests) {
-//TODO accumulated read but spud ... border Configuration(Read|Write)Request
-            decoder.read(serialPort, request);
-            decoder.decode(request);
+    /**
+     * The device is selected, if the address echo of the Match ROM of the
+     * frame matches the address.
+     */
+    private void verifySelectedAddress() {
+        if (matchRomRequest != null) {
+            if (Arrays.equals(matchRomRequest.requestData, matchRomRequest.response)) {
+                selectedAddress = OneWireContainer.addressOf(matchRomRequest.requestData);
+            }
+            matchRomRequest = null;
         }
     }
 
     @Override
     public void sendMatchRomRequest(long address) throws IOException {
         sendReset();
-        final DataRequestWithDeviceCommand request = new DataRequestWithDeviceCommand(Encoder.MATCH_ROM_CMD,
-                OneWireContainer.arrayOfAddress(address));
+        sendMatchRomRequest(Encoder.MATCH_ROM_CMD, address);
+    }
+
+    private void sendMatchRomRequest(byte matchRomCommand, long address) throws IOException {
+        final DataRequestWithDeviceCommand request = requestPool.matchRomRequest(matchRomCommand, address);
         sendCommand(request);
 
         long result = OneWireContainer.addressOf(request.response);
@@ -334,6 +589,119 @@ public class DS2480BAdapter implements OneWireAdapter {
         }
     }
 
+    /**
+     * Selects the device at overdrive speed. If the bus is not already at
+     * overdrive speed for this device, the Overdrive Match ROM command is sent
+     * at regular speed and the address at overdrive speed. Then a reset and
+     * Match ROM at overdrive speed verify, that the device is listening at
+     * overdrive speed. If not, or if the address echo does not match, the
+     * device is selected at regular speed from now on. Without a presence pulse
+     * of the first reset nothing else is sent.
+     *
+     * @param address the address of the device.
+     * @return true if the device was selected at overdrive speed.
+     * @throws IOException
+     */
+    @Override
+    public boolean sendOverdriveMatchRomRequest(long address) throws IOException {
+        if (!overdriveEnabled || overdriveFallbackAddresses.contains(address)) {
+            sendMatchRomRequest(address);
+            return false;
+        }
+        boolean switched = true;
+        if (busSpeed != OneWireSpeed.OVERDRIVE || !(overdriveSkipRom || overdriveAddress == address)) {
+            final ResetDeviceRequest resetDeviceRequest = requestPool.resetDeviceRequest(speedFromBaudrate);
+            final RawDataRequest addressRequest = requestPool.addressRequest(address);
+            // Switch the DS2480B to overdrive without any activity on the bus, the device is already listening at overdrive speed.
+            sendCommands(resetDeviceRequest,
+                    requestPool.deviceCommandRequest(Encoder.OVERDRIVE_MATCH_ROM_CMD),
+                    requestPool.searchAcceleratorCommand(SearchAccelerator.OFF, OneWireSpeed.OVERDRIVE),
+                    addressRequest);
+            if (!isPresence(resetDeviceRequest.response)) {
+                // no device at all, nothing to fall back for
+                return false;
+            }
+            busSpeed = OneWireSpeed.OVERDRIVE;
+            overdriveAddress = address;
+            switched = OneWireContainer.addressOf(addressRequest.response) == address;
+            if (!switched) {
+                LOG.log(Level.FINE, "Overdrive Match ROM failed, address echo: {0}",
+                        OneWireDevice.address2String(OneWireContainer.addressOf(addressRequest.response)));
+            }
+        }
+        if (switched) {
+            if (isPresence(sendCommand(requestPool.resetDeviceRequest(OneWireSpeed.OVERDRIVE)))) {
+                try {
+                    sendMatchRomRequest(Encoder.MATCH_ROM_CMD, address);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    LOG.log(Level.FINE, "Match ROM at overdrive speed failed", e);
+                }
+            }
+        }
+        LOG.log(Level.INFO, "Device {0} does not answer at overdrive speed, fall back to regular speed",
+                OneWireDevice.address2String(address));
+        overdriveFallbackAddresses.add(address);
+        sendMatchRomRequest(address);
+        return false;
+    }
+
+    /**
+     * Selects the device again with a reset and Resume ROM, if it was selected
+     * with the last ROM command. The reset is sent at the current speed of the
+     * bus, so a device at overdrive speed stays there.
+     *
+     * @param address the address of the device.
+     * @return true if Resume ROM was sent and the reset got a presence pulse.
+     * @throws IOException
+     */
+    @Override
+    public boolean sendResumeRequest(long address) throws IOException {
+        if (selectedAddress != address || address == NO_ADDRESS) {
+            return false;
+        }
+        final ResetDeviceRequest resetDeviceRequest = requestPool.resetDeviceRequest(busSpeed);
+        sendCommands(resetDeviceRequest, requestPool.deviceCommandRequest(Encoder.RESUME_CMD));
+        if (!isPresence(resetDeviceRequest.response)) {
+            selectedAddress = NO_ADDRESS;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Switch all overdrive capable devices to overdrive speed and address them
+     * with the next command. Reset, Overdrive Skip ROM and the switch of the
+     * DS2480B to overdrive are sent in one frame.
+     *
+     * @return true if the bus is at overdrive speed, false if overdrive is
+     * disabled or the reset got no presence pulse.
+     * @throws IOException
+     */
+    @Override
+    public boolean sendOverdriveSkipRomRequest() throws IOException {
+        if (!overdriveEnabled) {
+            sendSkipRomRequest();
+            return false;
+        }
+        final ResetDeviceRequest resetDeviceRequest = requestPool.resetDeviceRequest(speedFromBaudrate);
+        // Switch the DS2480B to overdrive without any activity on the bus.
+        sendCommands(resetDeviceRequest,
+                requestPool.deviceCommandRequest(Encoder.OVERDRIVE_SKIP_ROM_CMD),
+                requestPool.searchAcceleratorCommand(SearchAccelerator.OFF, OneWireSpeed.OVERDRIVE));
+        if (!isPresence(resetDeviceRequest.response)) {
+            return false;
+        }
+        busSpeed = OneWireSpeed.OVERDRIVE;
+        overdriveSkipRom = true;
+        return true;
+    }
+
+    private static boolean isPresence(ResetDeviceResponse resetDeviceResponse) {
+        return resetDeviceResponse.resetresult == ResetResult.PRESENCE
+                || resetDeviceResponse.resetresult == ResetResult.ALARM_PRESENCE;
+    }
+
     @Override
     public byte[] sendRawDataRequest(byte[] data) throws IOException {
         return sendCommand(new RawDataRequest(data));
@@ -341,29 +709,30 @@ public class DS2480BAdapter implements OneWireAdapter {
 
     @Override
     public byte sendReadByteRequest() throws IOException {
-        ReadBytesRequest r = new ReadBytesRequest(1);
+        final ReadBytesRequest r = requestPool.readByteRequest();
         sendCommand(r);
         return r.responseReadData[0];
     }
 
     @Override
     public ResetDeviceResponse sendReset() throws IOException {
-        return sendCommand(ResetDeviceRequest.of(getSpeedFromBaudrate()));
+        return sendCommand(requestPool.resetDeviceRequest(getSpeedFromBaudrate()));
+    }
+
+    @Override
+    public void sendDeviceCommand(byte command) throws IOException {
+        sendCommand(requestPool.deviceCommandRequest(command));
     }
 
     @Override
     public byte[] sendSkipRomRequest() throws IOException {
         sendReset();
-        final DataRequestWithDeviceCommand request = new DataRequestWithDeviceCommand(Encoder.SKIP_ROM_CMD, 0, 0);
-        return sendCommand(request);
+        return sendCommand(requestPool.deviceCommandRequest(Encoder.SKIP_ROM_CMD));
     }
 
     @Override
     public Byte sendTerminatePulse() throws IOException {
-        CommandRequest<?>[] requests = new CommandRequest[3];
-        requests[0] = new PulseTerminationRequest();
-        requests[1] = PulseRequest.of(PulsePower.STRONG_PULLUP, PulseType.DISARM);
-        requests[2] = new PulseTerminationRequest();
+        final CommandRequest<?>[] requests = requestPool.terminatePulseRequests();
         sendCommands(requests);
         return (Byte) requests[2].response;
         //TODO check response ???
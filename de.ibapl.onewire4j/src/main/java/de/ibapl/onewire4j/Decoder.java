@@ -21,13 +21,11 @@
  */
 package de.ibapl.onewire4j;
 
-import de.ibapl.onewire4j.request.CommandRequest;
 import de.ibapl.onewire4j.request.OneWireRequest;
 import de.ibapl.onewire4j.request.OneWireRequest.RequestState;
 import de.ibapl.onewire4j.request.PulseTerminationRequest;
 import de.ibapl.onewire4j.request.communication.AdapterVersion;
 import de.ibapl.onewire4j.request.communication.BitResult;
-import de.ibapl.onewire4j.request.communication.CommunicationRequest;
 import de.ibapl.onewire4j.request.communication.DataToSend;
 import de.ibapl.onewire4j.request.communication.OneWireSpeed;
 import de.ibapl.onewire4j.request.communication.PulsePower;
@@ -39,6 +37,7 @@ import de.ibapl.onewire4j.request.communication.ResetResult;
 import de.ibapl.onewire4j.request.communication.SearchAcceleratorCommand;
 import de.ibapl.onewire4j.request.communication.SingleBitRequest;
 import de.ibapl.onewire4j.request.communication.SingleBitResponse;
+import de.ibapl.onewire4j.request.configuration.CommandType;
 import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
 import de.ibapl.onewire4j.request.configuration.ConfigurationRequest;
 import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
@@ -49,7 +48,7 @@ import de.ibapl.onewire4j.request.configuration.PullDownSlewRateParam;
 import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 import de.ibapl.onewire4j.request.configuration.Write1LowTime;
-import de.ibapl.onewire4j.request.data.DataRequest;
+import de.ibapl.onewire4j.request.data.ByteBufferDataRequest;
 import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
 import de.ibapl.onewire4j.request.data.RawDataRequest;
 import de.ibapl.onewire4j.request.data.SearchCommand;
@@ -68,6 +67,37 @@ public class Decoder {
 
     private final static Logger LOG = Logger.getLogger(Decoder.class.getCanonicalName());
 
+    /**
+     * The values of a configuration response 0b0_ccc_vvv_0 indexed by the
+     * ordinal of the {@linkplain CommandType} and vvv, null if there is no
+     * configuration response. The values of all configuration enums are
+     * declared in the order of their codes 0..7.
+     */
+    private final static Enum<?>[][] CONFIGURATION_VALUES = new Enum<?>[CommandType.values().length][];
+
+    /**
+     * The bits 0b0_ccc_000_0 of a configuration response indexed by the
+     * ordinal of the {@linkplain CommandType}.
+     */
+    private final static int[] CONFIGURATION_RESPONSE_CODES = new int[CommandType.values().length];
+
+    private final static AdapterVersion[] ADAPTER_VERSIONS = AdapterVersion.values();
+
+    private final static ResetResult[] RESET_RESULTS = ResetResult.values();
+
+    private final static OneWireSpeed[] SPEEDS = OneWireSpeed.values();
+
+    static {
+        // in the order of Encoder.CONFIGURATION_COMMANDS
+        final Enum<?>[][] values = {PullDownSlewRateParam.values(), ProgrammingPulseDuration.values(),
+            StrongPullupDuration.values(), Write1LowTime.values(), DataSampleOffsetAndWrite0RecoveryTime.values(),
+            LoadSensorThreshold.values(), SerialPortSpeed.values()};
+        for (int c = 0; c < Encoder.CONFIGURATION_COMMANDS.length; c++) {
+            CONFIGURATION_VALUES[Encoder.CONFIGURATION_COMMANDS[c].ordinal()] = values[c];
+            CONFIGURATION_RESPONSE_CODES[Encoder.CONFIGURATION_COMMANDS[c].ordinal()] = (c + 1) << 4;
+        }
+    }
+
     // This is needed to determine if we must wait or not for
     // StrongPullupDuration.SPUD_POSITIVE_INFINITE
     private StrongPullupDuration spud = StrongPullupDuration.SPUD_524; // TODO DEFAULT??
@@ -81,57 +111,41 @@ public class Decoder {
         this.buff = buff;
     }
 
+    /**
+     * Decodes the response of the request. If the request was sent before,
+     * its response object is filled in place. The request calls back the
+     * decode method of its type, see
+     * {@linkplain OneWireRequest#decodeFrom(Decoder)}.
+     *
+     * @param request the request to decode the response for.
+     * @throws IOException if an error happens.
+     * @throws IllegalArgumentException if the response does not match the
+     * request.
+     */
     public <R> void decode(OneWireRequest<R> request) throws IOException, IllegalArgumentException {
         request.throwIfNot(RequestState.WAIT_FOR_RESPONSE);
+        request.decodeFrom(this);
+    }
 
-        if (request instanceof CommandRequest) {
-            if (request instanceof ConfigurationRequest) {
-                if (request instanceof ConfigurationReadRequest crr) {
-                    decodeConfigurationReadResponse(crr);
-                } else if (request instanceof ConfigurationWriteRequest cwr) {
-                    decodeConfigurationWriteResponse(cwr);
-                } else {
-                    throw new IllegalArgumentException("Unknown subtype of ConfigurationRequest: " + request.getClass());
-                }
-            } else if (request instanceof CommunicationRequest) {
-                if (request instanceof SingleBitRequest sbr) {
-                    decodeSingleBitResponse(sbr);
-                } else if (request instanceof SearchAcceleratorCommand) {
-                    request.success();
-                } else if (request instanceof ResetDeviceRequest rdr) {
-                    decodeResetDeviceResponse(rdr);
-                } else if (request instanceof PulseRequest pr) {
-                    decodePulseResponse(pr);
-                } else if (request instanceof PulseTerminationRequest ptr) {
-                    decodePulseTerminationResponse(ptr);
-                } else {
-                    throw new IllegalArgumentException("Unknown subtype of CommunicationRequest: " + request.getClass());
-                }
-            } else {
-                throw new IllegalArgumentException("Unknown subtype of CommandRequest: " + request.getClass());
-            }
-        } else if (request instanceof DataRequest) {
-            if (request instanceof SearchCommand sc) {
-                decodeSearchCommand(sc);
-            } else if (request instanceof DataRequestWithDeviceCommand drwdc) {
-                decodeDataRequestWithDeviceCommand(drwdc);
-            } else if (request instanceof RawDataRequest rdr) {
-                decodeRawDataRequest(rdr);
-            } else {
-                throw new IllegalArgumentException("NOT IMPLEMENTED: " + request.getClass());
-            }
-        } else {
-            throw new IllegalArgumentException("Unknown subtype of CommandRequest: " + request.getClass());
-        }
+    public void decodeSearchAcceleratorCommand(SearchAcceleratorCommand request) {
+        request.success();
+    }
+
+    public void decodeConfigurationReadRequest(ConfigurationReadRequest<?> request) {
+        decodeConfigurationResponse(request, request.commandType);
+    }
+
+    public void decodeConfigurationWriteRequest(ConfigurationWriteRequest<?> request) {
+        decodeConfigurationResponse(request, request.commandType);
     }
 
-    private void decodeSearchCommand(SearchCommand request) throws IOException {
+    public void decodeSearchCommand(SearchCommand request) throws IOException {
         final byte b = buff.get();
-        ((SearchCommand) request).response = b == 0xF0;
+        request.response = b == request.cmd;
         request.success();
     }
 
-    private void decodeRawDataRequest(RawDataRequest request) throws IOException {
+    public void decodeRawDataRequest(RawDataRequest request) throws IOException {
         if (buff.remaining() < request.response.length) {
             throw new RuntimeException("ERR response request: " + request);
         }
@@ -143,7 +157,7 @@ public class Decoder {
         request.success();
     }
 
-    private void decodeDataRequestWithDeviceCommand(DataRequestWithDeviceCommand request) throws IOException {
+    public void decodeDataRequestWithDeviceCommand(DataRequestWithDeviceCommand request) throws IOException {
         final byte c = buff.get();
         if (request.command != c) {
             throw new IllegalArgumentException(String.format("Wrong command: 0x%02x expected: 0x%02x", c, request.command));
@@ -151,8 +165,33 @@ public class Decoder {
         decodeRawDataRequest(request);
     }
 
-    private void decodePulseResponse(PulseRequest request) {
-        final PulseResponse response = new PulseResponse();
+    /**
+     * The responses are views into buff, nothing is copied. If a following
+     * read overwrites buff, {@linkplain #readAndDecode(ReadableByteChannel, OneWireRequest...)}
+     * copies them.
+     */
+    public void decodeByteBufferDataRequest(ByteBufferDataRequest request) {
+        final byte c = buff.get();
+        if (request.command != c) {
+            throw new IllegalArgumentException(String.format("Wrong command: 0x%02x expected: 0x%02x", c, request.command));
+        }
+        final int echoLength = request.requestData.remaining();
+        if (buff.remaining() < echoLength + request.readTimeSlots) {
+            throw new RuntimeException("ERR response request: " + request);
+        }
+        final int pos = buff.position();
+        request.response = buff.slice(pos, echoLength);
+        request.responseReadData = buff.slice(pos + echoLength, request.readTimeSlots);
+        buff.position(pos + echoLength + request.readTimeSlots);
+        request.success();
+    }
+
+    public void decodePulseRequest(PulseRequest request) {
+        PulseResponse response = request.response;
+        if (response == null) {
+            response = new PulseResponse();
+            request.response = response;
+        }
         if (spud != StrongPullupDuration.SPUD_POSITIVE_INFINITY) {
             final byte b = buff.get();
             if ((b & 0b111_0_11_00) != 0b111_0_11_00) {
@@ -163,14 +202,15 @@ public class Decoder {
             } else {
                 response.pulsePower = PulsePower.STRONG_PULLUP;
             }
+        } else {
+            response.pulsePower = null;
         }
 
         response.strongPullupDuration = spud;
-        request.response = response;
         request.success();
     }
 
-    private void decodePulseTerminationResponse(PulseTerminationRequest request) {
+    public void decodePulseTerminationRequest(PulseTerminationRequest request) {
         final byte b = buff.get();
         if ((b & 0b111111_00) != 0b111011_00) {
             // some adapters return 0xf1
@@ -183,72 +223,37 @@ public class Decoder {
         request.success();
     }
 
-    private void decodeResetDeviceResponse(ResetDeviceRequest request) {
+    public void decodeResetDeviceRequest(ResetDeviceRequest request) {
         final byte b = buff.get();
         if ((b & 0b110_0_00_00) != 0b110_0_00_00) {
             throw new RuntimeException("No ResetDeviceResponse: 0x" + Integer.toHexString(b));
         }
-        final ResetDeviceResponse response = new ResetDeviceResponse();
-        response.adapterVersion = switch (b & 0b00_0_111_00) {
-            case 0b00_0_000_00 ->
-                AdapterVersion.UNKNOWN_0;
-            case 0b00_0_001_00 ->
-                AdapterVersion.UNKNOWN_1;
-            case 0b00_0_010_00 ->
-                AdapterVersion.DS2480;
-            case 0b00_0_011_00 ->
-                AdapterVersion.DS2480B;
-            case 0b00_0_100_00 ->
-                AdapterVersion.UNKNOWN_4;
-            case 0b00_0_101_00 ->
-                AdapterVersion.UNKNOWN_5;
-            case 0b00_0_110_00 ->
-                AdapterVersion.UNKNOWN_6;
-            case 0b00_0_111_00 ->
-                AdapterVersion.UNKNOWN_7;
-            default ->
-                throw new RuntimeException("Unknown adapter version: 0x" + Integer.toHexString(b));
-        };
-
-        response.resetresult = switch (b & 0b00_0_000_11) {
-            case 0b00_0_000_00 ->
-                ResetResult._1_WIRE_SHORTED;
-            case 0b00_0_000_01 ->
-                ResetResult.PRESENCE;
-            case 0b00_0_000_10 ->
-                ResetResult.ALARM_PRESENCE;
-            case 0b00_0_000_11 ->
-                ResetResult.NO_PRESENCE;
-            default ->
-                throw new RuntimeException("Unknown reset result: 0x" + Integer.toHexString(b));
-        };
-        request.response = response;
+        ResetDeviceResponse response = request.response;
+        if (response == null) {
+            response = new ResetDeviceResponse();
+            request.response = response;
+        }
+        response.adapterVersion = ADAPTER_VERSIONS[(b & 0b00_0_111_00) >> 2];
+        response.resetresult = RESET_RESULTS[b & 0b00_0_000_11];
         request.success();
     }
 
-    private void decodeSingleBitResponse(SingleBitRequest request) {
+    public void decodeSingleBitRequest(SingleBitRequest request) {
         final byte b = buff.get();
         if ((b & 0b111_0_00_00) != 0b100_0_00_00) {
             throw new IllegalArgumentException("No SingleBitResponse: 0x" + Integer.toHexString(b));
         }
-        final SingleBitResponse response = new SingleBitResponse();
+        SingleBitResponse response = request.response;
+        if (response == null) {
+            response = new SingleBitResponse();
+            request.response = response;
+        }
         if ((b & 0b000_1_00_00) == 0b000_1_00_00) {
             response.dataToSend = DataToSend.WRITE_1_OR_READ_BIT;
         } else {
             response.dataToSend = DataToSend.WRITE_0_BIT;
         }
-        response.speed = switch (b & 0b000_0_11_00) {
-            case 0b000_0_00_00 ->
-                OneWireSpeed.STANDARD;
-            case 0b000_0_01_00 ->
-                OneWireSpeed.FLEX;
-            case 0b000_0_10_00 ->
-                OneWireSpeed.OVERDRIVE;
-            case 0b000_0_11_00 ->
-                OneWireSpeed.STANDARD_11;
-            default ->
-                throw new IllegalArgumentException("Unknown speed: 0x" + Integer.toHexString(b));
-        };
+        response.speed = SPEEDS[(b & 0b000_0_11_00) >> 2];
         response.bitResult = switch (b & 0b000_0_00_11) {
             case 0b000_0_00_00 ->
                 BitResult._O_READ_BACK;
@@ -257,252 +262,54 @@ public class Decoder {
             default ->
                 throw new IllegalArgumentException("Unknown bit result: 0x" + Integer.toHexString(b));
         };
-        request.response = response;
         request.success();
     }
 
-    @SuppressWarnings("unchecked")
-    private <R> void decodeConfigurationReadResponse(ConfigurationReadRequest<R> request) {
-        switch (request.commandType) {
-            case PDSRC -> {
-                request.response = (R) decodePDSRC(buff.get());
-            }
-            case PPD -> {
-                request.response = (R) decodePPD(buff.get());
-            }
-            case SPUD -> {
-                this.spud = decodeSPUD(buff.get());
-                request.response = (R) this.spud;
-            }
-            case W1LT -> {
-                request.response = (R) decodeW1LT(buff.get());
-            }
-            case DSO_AND_W0RT -> {
-                request.response = (R) decodeDSO_AND_W0RT(buff.get());
-            }
-            case LST -> {
-                request.response = (R) decodeLST(buff.get());
+    /**
+     * Decodes the responses of 8 single bit commands encoded with
+     * {@linkplain Encoder#encodeBitsOfByte(byte, OneWireSpeed, boolean)}.
+     *
+     * @return the bits read back, the first response in the least significant
+     * bit.
+     */
+    public byte decodeBitsOfByte() {
+        int result = 0;
+        for (int i = 0; i < 8; i++) {
+            final byte b = buff.get();
+            if ((b & 0b111_0_00_00) != 0b100_0_00_00) {
+                throw new IllegalArgumentException("No SingleBitResponse: 0x" + Integer.toHexString(b));
             }
-            case RBR -> {
-                request.response = (R) decodeRBR(buff.get());
+            switch (b & 0b000_0_00_11) {
+                case 0b000_0_00_00 -> {
+                }
+                case 0b000_0_00_11 ->
+                    result |= 0x01 << i;
+                default ->
+                    throw new IllegalArgumentException("Unknown bit result: 0x" + Integer.toHexString(b));
             }
-            default ->
-                throw new IllegalArgumentException("Cant handle configuration read response value: " + request.commandType);
         }
-        request.success();
+        return (byte) result;
     }
 
     @SuppressWarnings("unchecked")
-    private <R> void decodeConfigurationWriteResponse(ConfigurationWriteRequest<R> request) {
-        switch (request.commandType) {
-            case PDSRC -> {
-                request.response = (R) decodePDSRC(buff.get());
-            }
-            case PPD -> {
-                request.response = (R) decodePPD(buff.get());
-            }
-            case SPUD -> {
-                this.spud = decodeSPUD(buff.get());
-                request.response = (R) this.spud;
-            }
-            case W1LT -> {
-                request.response = (R) decodeW1LT(buff.get());
-            }
-            case DSO_AND_W0RT -> {
-                request.response = (R) decodeDSO_AND_W0RT(buff.get());
-            }
-            case LST -> {
-                request.response = (R) decodeLST(buff.get());
-            }
-            case RBR -> {
-                request.response = (R) decodeRBR(buff.get());
-            }
-            default ->
-                throw new IllegalArgumentException("Cant handle configuration write response value: " + request.commandType);
-        }
-        request.success();
-    }
-
-    private ProgrammingPulseDuration decodePPD(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x20) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No PPD: 0x" + Integer.toHexString(b));
-        }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                ProgrammingPulseDuration.PPD_32;
-            case 0x02 ->
-                ProgrammingPulseDuration.PPD_64;
-            case 0x04 ->
-                ProgrammingPulseDuration.PPD_128;
-            case 0x06 ->
-                ProgrammingPulseDuration.PPD_256;
-            case 0x08 ->
-                ProgrammingPulseDuration.PPD_512;
-            case 0x0A ->
-                ProgrammingPulseDuration.PPD_1024;
-            case 0x0C ->
-                ProgrammingPulseDuration.PPD_2048;
-            case 0x0E ->
-                ProgrammingPulseDuration.PPD_POSITIVE_INFINITY;
-            default ->
-                throw new IllegalArgumentException("Cant handle PPD byte value: " + b);
-        };
-    }
-
-    private PullDownSlewRateParam decodePDSRC(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x10) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No PDSRC: 0x" + Integer.toHexString(b));
-        }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                PullDownSlewRateParam.PDSRC_15;
-            case 0x02 ->
-                PullDownSlewRateParam.PDSRC_2_2;
-            case 0x04 ->
-                PullDownSlewRateParam.PDSRC_1_65;
-            case 0x06 ->
-                PullDownSlewRateParam.PDSRC_1_37;
-            case 0x08 ->
-                PullDownSlewRateParam.PDSRC_1_1;
-            case 0x0A ->
-                PullDownSlewRateParam.PDSRC_0_83;
-            case 0x0C ->
-                PullDownSlewRateParam.PDSRC_0_7;
-            case 0x0E ->
-                PullDownSlewRateParam.PDSRC_0_55;
-            default ->
-                throw new IllegalArgumentException("Cant handle PDSRC byte value: " + b);
-        };
-    }
-
-    private StrongPullupDuration decodeSPUD(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x30) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No SPUD: 0x" + Integer.toHexString(b));
+    private <R> void decodeConfigurationResponse(ConfigurationRequest<R> request, CommandType commandType) {
+        final Enum<?>[] values = CONFIGURATION_VALUES[commandType.ordinal()];
+        if (values == null) {
+            throw new IllegalArgumentException("Cant handle configuration response value: " + commandType);
         }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                StrongPullupDuration.SPUD_16_4;
-            case 0x02 ->
-                StrongPullupDuration.SPUD_65_5;
-            case 0x04 ->
-                StrongPullupDuration.SPUD_131;
-            case 0x06 ->
-                StrongPullupDuration.SPUD_262;
-            case 0x08 ->
-                StrongPullupDuration.SPUD_524;
-            case 0x0A ->
-                StrongPullupDuration.SPUD_1048;
-            case 0x0C ->
-                StrongPullupDuration.SPUD_DYN;
-            case 0x0E ->
-                StrongPullupDuration.SPUD_POSITIVE_INFINITY;
-            default ->
-                throw new IllegalArgumentException("Cant handle SPUD byte value: " + b);
-        };
-    }
-
-    private Write1LowTime decodeW1LT(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x40) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No W1LT: 0x" + Integer.toHexString(b));
+        final byte b = buff.get();
+        if (((b & 0xF0) != CONFIGURATION_RESPONSE_CODES[commandType.ordinal()]) && ((b & 0xF0) != 0x00)) {
+            throw new IllegalArgumentException("No " + commandType + ": 0x" + Integer.toHexString(b));
         }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                Write1LowTime.W1LT_8;
-            case 0x02 ->
-                Write1LowTime.W1LT_9;
-            case 0x04 ->
-                Write1LowTime.W1LT_10;
-            case 0x06 ->
-                Write1LowTime.W1LT_11;
-            case 0x08 ->
-                Write1LowTime.W1LT_12;
-            case 0x0A ->
-                Write1LowTime.W1LT_13;
-            case 0x0C ->
-                Write1LowTime.W1LT_14;
-            case 0x0E ->
-                Write1LowTime.W1LT_15;
-            default ->
-                throw new IllegalArgumentException("Cant handle W1LT byte value: " + b);
-        };
-    }
-
-    private DataSampleOffsetAndWrite0RecoveryTime decodeDSO_AND_W0RT(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x50) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No DSO_AND_W0RT: 0x" + Integer.toHexString(b));
+        if ((b & 0x01) != 0x00) {
+            throw new IllegalArgumentException("Cant handle " + commandType + " byte value: " + b);
         }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_3;
-            case 0x02 ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_4;
-            case 0x04 ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_5;
-            case 0x06 ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_6;
-            case 0x08 ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_7;
-            case 0x0A ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_8;
-            case 0x0C ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_9;
-            case 0x0E ->
-                DataSampleOffsetAndWrite0RecoveryTime.DSO_AND_W0RT_10;
-            default ->
-                throw new IllegalArgumentException("Cant handle DSO_AND_W0RT byte value: " + b);
-        };
-    }
-
-    private LoadSensorThreshold decodeLST(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x60) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No LST: 0x" + Integer.toHexString(b));
+        final Enum<?> value = values[(b & 0x0E) >> 1];
+        if (commandType == CommandType.SPUD) {
+            this.spud = (StrongPullupDuration) value;
         }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                LoadSensorThreshold.LST_1_8;
-            case 0x02 ->
-                LoadSensorThreshold.LST_2_1;
-            case 0x04 ->
-                LoadSensorThreshold.LST_2_4;
-            case 0x06 ->
-                LoadSensorThreshold.LST_2_7;
-            case 0x08 ->
-                LoadSensorThreshold.LST_3_0;
-            case 0x0A ->
-                LoadSensorThreshold.LST_3_3;
-            case 0x0C ->
-                LoadSensorThreshold.LST_3_6;
-            case 0x0E ->
-                LoadSensorThreshold.LST_3_9;
-            default ->
-                throw new IllegalArgumentException("Cant handle LST byte value: " + b);
-        };
-    }
-
-    private SerialPortSpeed decodeRBR(final byte b) throws RuntimeException {
-        if (((b & 0xF0) != 0x70) && ((b & 0xF0) != 0x00)) {
-            throw new IllegalArgumentException("No RBR: 0x" + Integer.toHexString(b));
-        }
-        return switch (b & 0x0F) {
-            case 0x00 ->
-                SerialPortSpeed.SPS_9_6;
-            case 0x02 ->
-                SerialPortSpeed.SPS_19_2;
-            case 0x04 ->
-                SerialPortSpeed.SPS_57_6;
-            case 0x06 ->
-                SerialPortSpeed.SPS_115_2;
-            case 0x08 ->
-                SerialPortSpeed.SPS_9_6_I;
-            case 0x0A ->
-                SerialPortSpeed.SPS_19_2_I;
-            case 0x0C ->
-                SerialPortSpeed.SPS_57_6_I;
-            case 0x0E ->
-                SerialPortSpeed.SPS_115_2_I;
-            default ->
-                throw new IllegalArgumentException("Cant handle RBR byte value: " + b);
-        };
+        request.response = (R) value;
+        request.success();
     }
 
     public void read(ReadableByteChannel channel, int len) throws IOException {
@@ -524,6 +331,83 @@ public class Decoder {
         buff.flip();
     }
 
+    /**
+     * Read exactly len bytes, if the channel returns less than requested, read
+     * again.
+     *
+     * @param channel
+     * @param len
+     * @throws IOException if the channel has no more data.
+     */
+    public void readFully(ReadableByteChannel channel, int len) throws IOException {
+        buff.position(0);
+        buff.limit(len);
+        try {
+            while (buff.hasRemaining()) {
+                if (channel.read(buff) <= 0) {
+                    throw new IOException("Got only " + buff.position() + " of " + len + " bytes");
+                }
+            }
+        } catch (TimeoutIOException tioe) {
+            LOG.log(Level.SEVERE, "Timeout during read response got: {0} expected length: {1}", new Object[]{buff.position(), len});
+            throw tioe;
+        }
+        buff.flip();
+    }
+
+    /**
+     * Read and decode the responses of all requests with as few reads as
+     * possible. The expected length is summed up over the requests. A SPUD
+     * configuration write changes the response size of following pulse
+     * requests, so the new value is used for them. A SPUD configuration read
+     * tells the real value, so the read ends after it. The read ends also if
+     * the buffer is full. The responses of a {@linkplain ByteBufferDataRequest}
+     * are views into the buffer, if another read follows they are copied
+     * before the buffer is overwritten.
+     *
+     * @param channel
+     * @param requests
+     * @throws IOException
+     */
+    public void readAndDecode(ReadableByteChannel channel, OneWireRequest<?>... requests) throws IOException {
+        int first = 0;
+        while (first < requests.length) {
+            StrongPullupDuration expectedSpud = spud;
+            int len = 0;
+            int last = first;
+            while (last < requests.length) {
+                final OneWireRequest<?> request = requests[last];
+                final int size = request.responseSize(expectedSpud);
+                if (last > first && len + size > buff.capacity()) {
+                    break;
+                }
+                len += size;
+                last++;
+                if (request instanceof ConfigurationWriteRequest<?> cwr && cwr.commandType == CommandType.SPUD) {
+                    expectedSpud = (StrongPullupDuration) cwr.propertyValue;
+                } else if (request instanceof ConfigurationReadRequest<?> crr && crr.commandType == CommandType.SPUD) {
+                    break;
+                }
+            }
+            if (len > 0) {
+                readFully(channel, len);
+            }
+            for (int i = first; i < last; i++) {
+                decode(requests[i]);
+                if (last < requests.length && requests[i] instanceof ByteBufferDataRequest bbdr) {
+                    // the next read overwrites the views
+                    bbdr.response = copyOf(bbdr.response);
+                    bbdr.responseReadData = copyOf(bbdr.responseReadData);
+                }
+            }
+            first = last;
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer view) {
+        return ByteBuffer.allocate(view.remaining()).put(view.duplicate()).flip();
+    }
+
     public int capacity() {
         return buff.capacity();
     }
@@ -0,0 +1,167 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireContainer;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.stream.LongStream;
+import java.util.logging.Logger;
+
+/**
+ * Checks a bus against the addresses found last time. Every known device is
+ * verified with a search pass along its address. A found device explains the
+ * discrepancies on its path, where devices with the other bit value exist.
+ * If all discrepancies are explained by found devices, there is no other
+ * device on the bus. Only if not, the whole bus is searched.
+ *
+ * @author Arne Plöse
+ */
+public class DeltaSearch {
+
+    private final static Logger LOG = Logger.getLogger(DeltaSearch.class.getCanonicalName());
+
+    private final byte searchCommand;
+    private long[] knownAddresses;
+    private boolean lastSearchWasFull;
+
+    public DeltaSearch(byte searchCommand, long... knownAddresses) {
+        this.searchCommand = searchCommand;
+        this.knownAddresses = knownAddresses.clone();
+    }
+
+    /**
+     * Returns the addresses found by the last search.
+     *
+     * @return the addresses found by the last search.
+     */
+    public long[] getKnownAddresses() {
+        return knownAddresses.clone();
+    }
+
+    /**
+     * Returns true if the last search had to search the whole bus.
+     *
+     * @return true if the last search was a full search.
+     */
+    public boolean wasLastSearchFull() {
+        return lastSearchWasFull;
+    }
+
+    /**
+     * Searches the bus and notifies the listener about added and removed
+     * devices.
+     *
+     * @param adapter the adapter to use.
+     * @param listener the listener to notify.
+     * @throws IOException if an error happens.
+     */
+    public void search(OneWireAdapter adapter, DeviceChangeListener listener) throws IOException {
+        final long[] found = new long[knownAddresses.length];
+        final long[] discrepancies = new long[knownAddresses.length];
+        int foundCount = 0;
+        boolean explained = knownAddresses.length > 0;
+        final OWSearchIterator searchIterator = new OWSearchIterator();
+        for (long address : knownAddresses) {
+            if (contains(found, foundCount, address)) {
+                // Already found by the pass of an other known device
+                continue;
+            }
+            searchIterator.presetPath(address);
+            try {
+                if (!adapter.sendSearchRequest(searchCommand, searchIterator)) {
+                    // nothing on the bus, devices must not vanish while we search
+                    explained = foundCount == 0;
+                    break;
+                }
+            } catch (RuntimeException e) {
+                LOG.log(Level.INFO, "Search pass for " + OneWireContainer.addressToString(address) + " failed", e);
+                explained = false;
+                break;
+            }
+            if (!contains(found, foundCount, searchIterator.getAddress())) {
+                found[foundCount] = searchIterator.getAddress();
+                discrepancies[foundCount] = searchIterator.getDiscrepancies();
+                foundCount++;
+            }
+        }
+        final long[] current;
+        if (explained && isExplained(found, discrepancies, foundCount)) {
+            lastSearchWasFull = false;
+            current = Arrays.copyOf(found, foundCount);
+        } else {
+            lastSearchWasFull = true;
+            final LongStream.Builder all = LongStream.builder();
+            adapter.searchDevices(searchCommand, all);
+            current = all.build().toArray();
+        }
+        for (long address : current) {
+            if (!contains(knownAddresses, knownAddresses.length, address)) {
+                listener.deviceAdded(address);
+            }
+        }
+        for (long address : knownAddresses) {
+            if (!contains(current, current.length, address)) {
+                listener.deviceRemoved(address);
+            }
+        }
+        knownAddresses = current;
+    }
+
+    /**
+     * A discrepancy at bit k on the path of a found device is explained, if
+     * an other found device has the same lower k bits and the other value at
+     * bit k.
+     */
+    private static boolean isExplained(long[] found, long[] discrepancies, int count) {
+        for (int i = 0; i < count; i++) {
+            long pending = discrepancies[i];
+            while (pending != 0) {
+                final int k = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1;
+                final long mask = k == 63 ? -1L : (1L << (k + 1)) - 1;
+                boolean explained = false;
+                for (int j = 0; j < count; j++) {
+                    if (((found[i] ^ found[j]) & mask) == 1L << k) {
+                        explained = true;
+                        break;
+                    }
+                }
+                if (!explained) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(long[] addresses, int count, long address) {
+        for (int i = 0; i < count; i++) {
+            if (addresses[i] == address) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireDevice;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Remembers the devices found on a bus with the time they were last seen. The
+ * devices are kept in an open addressing hash table with the address as
+ * primitive key, so a lookup does not box and does not touch the bus. A known
+ * device is refreshed with a single search pass along its address. Devices not
+ * seen within the time to live are evicted.
+ *
+ * This class is not thread safe.
+ *
+ * @author Arne Plöse
+ */
+public class DeviceRegistry {
+
+    /**
+     * Marks an empty slot. There is no family code 0, so no device has this
+     * address.
+     */
+    private final static long EMPTY = 0L;
+
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final OWSearchIterator searchIterator = new OWSearchIterator();
+
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private OneWireDevice[] devices = new OneWireDevice[INITIAL_CAPACITY];
+    private long[] lastSeenMillis = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public DeviceRegistry(Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    public DeviceRegistry(Duration ttl, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the device if it was seen within the time to live.
+     *
+     * @param address the address of the device.
+     * @return the device or null if unknown or expired.
+     */
+    public OneWireDevice get(long address) {
+        final int slot = slotOf(address);
+        if (slot < 0 || isExpired(slot, clock.millis())) {
+            return null;
+        }
+        return devices[slot];
+    }
+
+    /**
+     * Registers the device as seen now. An unknown device is created with
+     * {@linkplain OneWireDevice#fromAdress(long)}.
+     *
+     * @param address the address of the device.
+     * @return the registered device.
+     */
+    public OneWireDevice seen(long address) {
+        if (address == EMPTY) {
+            throw new IllegalArgumentException("Not a device address: " + OneWireDevice.address2String(address));
+        }
+        int slot = slotOf(address);
+        if (slot < 0) {
+            if ((size + 1) * 4 > addresses.length * 3) {
+                resize(addresses.length * 2);
+            }
+            slot = insert(address, OneWireDevice.fromAdress(address));
+        }
+        lastSeenMillis[slot] = clock.millis();
+        return devices[slot];
+    }
+
+    /**
+     * Removes the device.
+     *
+     * @param address the address of the device.
+     * @return the removed device or null if unknown.
+     */
+    public OneWireDevice remove(long address) {
+        final int slot = slotOf(address);
+        if (slot < 0) {
+            return null;
+        }
+        final OneWireDevice result = devices[slot];
+        removeSlot(slot);
+        return result;
+    }
+
+    /**
+     * Returns the addresses of all devices, including the expired ones not
+     * evicted yet.
+     *
+     * @return the addresses.
+     */
+    public long[] getAddresses() {
+        final long[] result = new long[size];
+        int index = 0;
+        for (long address : addresses) {
+            if (address != EMPTY) {
+                result[index++] = address;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches the whole bus and registers all devices found.
+     *
+     * @param adapter the adapter to use.
+     * @throws IOException if an error happens.
+     */
+    public void search(OneWireAdapter adapter) throws IOException {
+        adapter.searchDevices(SearchCommand.SEARCH_ROM, (long address) -> seen(address));
+    }
+
+    /**
+     * Checks with one search pass along the address if the device is still on
+     * the bus and if so registers it as seen now.
+     *
+     * @param adapter the adapter to use.
+     * @param address the address of the device.
+     * @return true if the device answered.
+     * @throws IOException if an error happens.
+     */
+    public boolean verify(OneWireAdapter adapter, long address) throws IOException {
+        searchIterator.presetPath(address);
+        if (adapter.sendSearchRequest(SearchCommand.SEARCH_ROM, searchIterator)
+                && searchIterator.getAddress() == address) {
+            seen(address);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Verifies all known devices, then evicts the ones not seen within the
+     * time to live.
+     *
+     * @param adapter the adapter to use.
+     * @return the number of devices that answered.
+     * @throws IOException if an error happens.
+     */
+    public int refresh(OneWireAdapter adapter) throws IOException {
+        int result = 0;
+        for (long address : getAddresses()) {
+            if (verify(adapter, address)) {
+                result++;
+            }
+        }
+        evictExpired();
+        return result;
+    }
+
+    /**
+     * Removes all devices not seen within the time to live.
+     *
+     * @return the number of devices removed.
+     */
+    public int evictExpired() {
+        final long now = clock.millis();
+        int result = 0;
+        int slot = 0;
+        while (slot < addresses.length) {
+            if (addresses[slot] != EMPTY && isExpired(slot, now)) {
+                // an entry may be moved into this slot, so look at it again
+                removeSlot(slot);
+                result++;
+            } else {
+                slot++;
+            }
+        }
+        return result;
+    }
+
+    private boolean isExpired(int slot, long now) {
+        return now - lastSeenMillis[slot] > ttlMillis;
+    }
+
+    private int indexOf(long address, int length) {
+        // Fibonacci hashing, the upper bits are spread best
+        return (int) ((address * 0x9e3779b97f4a7c15L) >>> (64 - Integer.numberOfTrailingZeros(length)));
+    }
+
+    private int slotOf(long address) {
+        final int mask = addresses.length - 1;
+        for (int slot = indexOf(address, addresses.length);; slot = (slot + 1) & mask) {
+            if (addresses[slot] == address) {
+                return address == EMPTY ? -1 : slot;
+            }
+            if (addresses[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int insert(long address, OneWireDevice device) {
+        final int mask = addresses.length - 1;
+        int slot = indexOf(address, addresses.length);
+        while (addresses[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        addresses[slot] = address;
+        devices[slot] = device;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes with backward shift, so no tombstones are needed.
+     */
+    private void removeSlot(int slot) {
+        final int mask = addresses.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (addresses[next] != EMPTY) {
+            final int home = indexOf(addresses[next], addresses.length);
+            // move the entry if the hole is between its home slot and its slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                addresses[hole] = addresses[next];
+                devices[hole] = devices[next];
+                lastSeenMillis[hole] = lastSeenMillis[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        addresses[hole] = EMPTY;
+        devices[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        final long[] oldAddresses = addresses;
+        final OneWireDevice[] oldDevices = devices;
+        final long[] oldLastSeenMillis = lastSeenMillis;
+        addresses = new long[capacity];
+        devices = new OneWireDevice[capacity];
+        lastSeenMillis = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != EMPTY) {
+                lastSeenMillis[insert(oldAddresses[i], oldDevices[i])] = oldLastSeenMillis[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceRegistry{size=" + size + ", addresses=" + Arrays.toString(getAddresses()) + "}";
+    }
+
+}
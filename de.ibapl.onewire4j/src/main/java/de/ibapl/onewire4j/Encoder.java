@@ -22,33 +22,27 @@
 package de.ibapl.onewire4j;
 
 import de.ibapl.onewire4j.container.OneWireDataCommand;
-import de.ibapl.onewire4j.request.CommandRequest;
 import de.ibapl.onewire4j.request.OneWireRequest;
 import de.ibapl.onewire4j.request.OneWireRequest.RequestState;
 import de.ibapl.onewire4j.request.PulseTerminationRequest;
-import de.ibapl.onewire4j.request.communication.CommunicationRequest;
 import de.ibapl.onewire4j.request.communication.OneWireSpeed;
 import de.ibapl.onewire4j.request.communication.PulseRequest;
 import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
 import de.ibapl.onewire4j.request.communication.SearchAcceleratorCommand;
 import de.ibapl.onewire4j.request.communication.SingleBitRequest;
+import de.ibapl.onewire4j.request.configuration.CommandType;
 import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
-import de.ibapl.onewire4j.request.configuration.ConfigurationRequest;
 import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
-import de.ibapl.onewire4j.request.configuration.DataSampleOffsetAndWrite0RecoveryTime;
-import de.ibapl.onewire4j.request.configuration.LoadSensorThreshold;
-import de.ibapl.onewire4j.request.configuration.ProgrammingPulseDuration;
-import de.ibapl.onewire4j.request.configuration.PullDownSlewRateParam;
-import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
-import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
-import de.ibapl.onewire4j.request.configuration.Write1LowTime;
-import de.ibapl.onewire4j.request.data.DataRequest;
+import de.ibapl.onewire4j.request.data.ByteBufferDataRequest;
 import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
 import de.ibapl.onewire4j.request.data.RawDataRequest;
 import de.ibapl.onewire4j.request.data.SearchCommand;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
@@ -65,11 +59,56 @@ public class Encoder {
     public static final byte RESET_CMD = (byte) 0xC1;
     @OneWireDataCommand
     public static final byte SKIP_ROM_CMD = (byte) 0xcc;
+    @OneWireDataCommand
+    public static final byte OVERDRIVE_MATCH_ROM_CMD = (byte) 0x69;
+    @OneWireDataCommand
+    public static final byte OVERDRIVE_SKIP_ROM_CMD = (byte) 0x3c;
+    @OneWireDataCommand
+    public static final byte RESUME_CMD = (byte) 0xa5;
     public static final byte SWITCH_TO_COMMAND_MODE_BYTE = (byte) 0xe3;
     public static final byte SWITCH_TO_DATA_MODE_BYTE = (byte) 0xe1;
+    private final static long SWITCH_TO_COMMAND_MODE_BYTES = 0xe3e3e3e3e3e3e3e3L;
+    private final static VarHandle LITTLE_ENDIAN_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
     public final static byte ONE_WIRE_READ_BYTE_FILLER = (byte) 0xff;
     private final byte[] readTimeSlotsCache;
 
+    /**
+     * The configuration commands in the order of their codes 1..7.
+     */
+    final static CommandType[] CONFIGURATION_COMMANDS = {CommandType.PDSRC, CommandType.PPD, CommandType.SPUD,
+        CommandType.W1LT, CommandType.DSO_AND_W0RT, CommandType.LST, CommandType.RBR};
+
+    /**
+     * The configuration read byte 0b0_000_ccc_1 indexed by the ordinal of the
+     * {@linkplain CommandType}, 0 if it can't be read.
+     */
+    private final static byte[] CONFIGURATION_READ_CODES = new byte[CommandType.values().length];
+
+    /**
+     * The configuration write byte 0b0_ccc_vvv_1 indexed by the ordinal of the
+     * {@linkplain CommandType} and the ordinal of the value. The values of all
+     * configuration enums are declared in the order of their codes 0..7.
+     */
+    private final static byte[][] CONFIGURATION_WRITE_CODES = new byte[CommandType.values().length][];
+
+    /**
+     * The speed bits indexed by the ordinal of {@linkplain OneWireSpeed}.
+     */
+    private final static byte[] SPEED_CODES = {0b0000_00_00, 0b0000_01_00, 0b0000_10_00, 0b0000_11_00};
+
+    static {
+        for (int c = 0; c < CONFIGURATION_COMMANDS.length; c++) {
+            final int commandCode = c + 1;
+            CONFIGURATION_READ_CODES[CONFIGURATION_COMMANDS[c].ordinal()] = (byte) (0b0_000_000_1 | (commandCode << 1));
+            final byte[] codes = new byte[8];
+            for (int v = 0; v < codes.length; v++) {
+                codes[v] = (byte) (0b0_000_000_1 | (commandCode << 4) | (v << 1));
+            }
+            CONFIGURATION_WRITE_CODES[CONFIGURATION_COMMANDS[c].ordinal()] = codes;
+        }
+    }
+
+
     final ByteBuffer buff;
 
     /**
@@ -84,241 +123,54 @@ public class Encoder {
     }
 
     /**
-     * Encode and write the request to the OutputStream. Work is done by
-     * delegating the actual work to the private methods.
+     * Encode and write the request to the OutputStream. The request calls back
+     * the encode method of its type, see
+     * {@linkplain OneWireRequest#encodeTo(Encoder)}.
      *
      * @param request the request to encode.
      * @throws IOException if an error happens.
      */
     public <R> void encode(OneWireRequest<R> request) throws IOException {
         request.throwIfNot(RequestState.READY_TO_SEND);
-
-        if (request instanceof CommandRequest) {
-            if (request instanceof ConfigurationRequest) {
-                if (request instanceof ConfigurationReadRequest) {
-                    buff.put(encodeConfigurationReadRequest((ConfigurationReadRequest<R>) request));
-                } else if (request instanceof ConfigurationWriteRequest) {
-                    buff.put(encodeConfigurationWriteRequest((ConfigurationWriteRequest<R>) request));
-                } else {
-                    throw new RuntimeException("Unknown subtype of ConfigurationRequest: " + request.getClass());
-                }
-            } else if (request instanceof CommunicationRequest) {
-                if (request instanceof SingleBitRequest singleBitRequest) {
-                    buff.put(encodeSingleBitSendCommand(singleBitRequest));
-                } else if (request instanceof SearchAcceleratorCommand searchAcceleratorCommand) {
-                    buff.put(encodeSearchAcceleratorCommand(searchAcceleratorCommand));
-                } else if (request instanceof ResetDeviceRequest resetDeviceRequest) {
-                    buff.put(encodeResetDevice(resetDeviceRequest));
-                } else if (request instanceof PulseRequest pulseRequest) {
-                    buff.put(encodePulseRequest(pulseRequest));
-                } else if (request instanceof PulseTerminationRequest) {
-                    buff.put((byte) 0xF1);
-                } else {
-                    throw new RuntimeException("Unknown subtype of CommunicationRequest: " + request.getClass());
-                }
-            } else {
-                throw new RuntimeException("Unknown subtype of CommandRequest: " + request.getClass());
-            }
-        } else if (request instanceof DataRequest) {
-            if (request instanceof SearchCommand searchCommand) {
-                buff.put(searchCommand.cmd);
-            } else if (request instanceof DataRequestWithDeviceCommand dataRequestWithDeviceCommand) {
-                final DataRequestWithDeviceCommand r = dataRequestWithDeviceCommand;
-                buff.put(r.command);
-                writeDataBytes(r.requestData, request.readTimeSlots);
-            } else if (request instanceof RawDataRequest rawDataRequest) {
-                writeDataBytes(rawDataRequest.requestData, request.readTimeSlots);
-            } else {
-                throw new RuntimeException("NOT IMPLEMENTED: " + request.getClass());
-            }
-        } else {
-            throw new RuntimeException("Unknown subtype of CommandRequest: " + request.getClass());
-        }
+        request.encodeTo(this);
         request.waitForResponse();
     }
 
-    private byte encodeConfigurationReadRequest(ConfigurationReadRequest<?> configurationCommand) throws IOException {
-        return switch (configurationCommand.commandType) {
-            case PDSRC ->
-                0b0_000_001_1;
-            case PPD ->
-                0b0_000_010_1;
-            case SPUD ->
-                0b0_000_011_1;
-            case W1LT ->
-                0b0_000_100_1;
-            case DSO_AND_W0RT ->
-                0b0_000_101_1;
-            case LST ->
-                0b0_000_110_1;
-            case RBR ->
-                0b0_000_111_1;
-            default ->
-                throw new RuntimeException("Unknown Configuration command: " + configurationCommand.commandType);
-        };
+    public void encodeRawDataRequest(RawDataRequest request) throws IOException {
+        writeDataBytes(request.requestData, request.readTimeSlots);
     }
 
-    @SuppressWarnings("unchecked")
-    private byte encodeConfigurationWriteRequest(ConfigurationWriteRequest<?> configurationCommand) throws IOException {
-        switch (configurationCommand.commandType) {
-            case PDSRC -> {
-                return switch (((ConfigurationWriteRequest<PullDownSlewRateParam>) configurationCommand).propertyValue) {
-                    case PDSRC_15 ->
-                        0b0_001_000_1;
-                    case PDSRC_2_2 ->
-                        0b0_001_001_1;
-                    case PDSRC_1_65 ->
-                        0b0_001_010_1;
-                    case PDSRC_1_37 ->
-                        0b0_001_011_1;
-                    case PDSRC_1_1 ->
-                        0b0_001_100_1;
-                    case PDSRC_0_83 ->
-                        0b0_001_101_1;
-                    case PDSRC_0_7 ->
-                        0b0_001_110_1;
-                    case PDSRC_0_55 ->
-                        0b0_001_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle PDSRC: " + configurationCommand.propertyValue);
-                };
-            }
-            case PPD -> {
-                return switch (((ConfigurationWriteRequest<ProgrammingPulseDuration>) configurationCommand).propertyValue) {
-                    case PPD_32 ->
-                        0b0_010_000_1;
-                    case PPD_64 ->
-                        0b0_010_001_1;
-                    case PPD_128 ->
-                        0b0_010_010_1;
-                    case PPD_256 ->
-                        0b0_010_011_1;
-                    case PPD_512 ->
-                        0b0_010_100_1;
-                    case PPD_1024 ->
-                        0b0_010_101_1;
-                    case PPD_2048 ->
-                        0b0_010_110_1;
-                    case PPD_POSITIVE_INFINITY ->
-                        0b0_010_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle PPD: " + configurationCommand.propertyValue);
-                };
-            }
-            case SPUD -> {
-                return switch (((ConfigurationWriteRequest<StrongPullupDuration>) configurationCommand).propertyValue) {
-                    case SPUD_16_4 ->
-                        0b0_011_000_1;
-                    case SPUD_65_5 ->
-                        0b0_011_001_1;
-                    case SPUD_131 ->
-                        0b0_011_010_1;
-                    case SPUD_262 ->
-                        0b0_011_011_1;
-                    case SPUD_524 ->
-                        0b0_011_100_1;
-                    case SPUD_1048 ->
-                        0b0_011_101_1;
-                    case SPUD_DYN ->
-                        0b0_011_110_1;
-                    case SPUD_POSITIVE_INFINITY ->
-                        0b0_011_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle SPUD: " + configurationCommand.propertyValue);
-                };
-            }
-            case W1LT -> {
-                return switch (((ConfigurationWriteRequest<Write1LowTime>) configurationCommand).propertyValue) {
-                    case W1LT_8 ->
-                        0b0_100_000_1;
-                    case W1LT_9 ->
-                        0b0_100_001_1;
-                    case W1LT_10 ->
-                        0b0_100_010_1;
-                    case W1LT_11 ->
-                        0b0_100_011_1;
-                    case W1LT_12 ->
-                        0b0_100_100_1;
-                    case W1LT_13 ->
-                        0b0_100_101_1;
-                    case W1LT_14 ->
-                        0b0_100_110_1;
-                    case W1LT_15 ->
-                        0b0_100_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle W1LT: " + configurationCommand.propertyValue);
-                };
-            }
-            case DSO_AND_W0RT -> {
-                return switch (((ConfigurationWriteRequest<DataSampleOffsetAndWrite0RecoveryTime>) configurationCommand).propertyValue) {
-                    case DSO_AND_W0RT_3 ->
-                        0b0_101_000_1;
-                    case DSO_AND_W0RT_4 ->
-                        0b0_101_001_1;
-                    case DSO_AND_W0RT_5 ->
-                        0b0_101_010_1;
-                    case DSO_AND_W0RT_6 ->
-                        0b0_101_011_1;
-                    case DSO_AND_W0RT_7 ->
-                        0b0_101_100_1;
-                    case DSO_AND_W0RT_8 ->
-                        0b0_101_101_1;
-                    case DSO_AND_W0RT_9 ->
-                        0b0_101_110_1;
-                    case DSO_AND_W0RT_10 ->
-                        0b0_101_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle DSO_AND_W0RT: " + configurationCommand.propertyValue);
-                };
-            }
-            case LST -> {
-                return switch (((ConfigurationWriteRequest<LoadSensorThreshold>) configurationCommand).propertyValue) {
-                    case LST_1_8 ->
-                        0b0_110_000_1;
-                    case LST_2_1 ->
-                        0b0_110_001_1;
-                    case LST_2_4 ->
-                        0b0_110_010_1;
-                    case LST_2_7 ->
-                        0b0_110_011_1;
-                    case LST_3_0 ->
-                        0b0_110_100_1;
-                    case LST_3_3 ->
-                        0b0_110_101_1;
-                    case LST_3_6 ->
-                        0b0_110_110_1;
-                    case LST_3_9 ->
-                        0b0_110_111_1;
-                    default ->
-                        throw new RuntimeException("Cant't handle LST: " + configurationCommand.propertyValue);
-                };
-            }
-            case RBR -> {
-                return switch (((ConfigurationWriteRequest<SerialPortSpeed>) configurationCommand).propertyValue) {
-                    case SPS_9_6, SPS_19_2 ->
-                        0b0_111_001_1;
-                    case SPS_57_6 ->
-                        0b0_111_010_1;
-                    case SPS_115_2 ->
-                        0b0_111_011_1;
-                    case SPS_9_6_I ->
-                        0b0_111_100_1;
-                    case SPS_19_2_I ->
-                        0b0_111_101_1;
-                    case SPS_57_6_I ->
-                        0b0_111_110_1;
-                    case SPS_115_2_I ->
-                        0b0_111_111_1;
-                    default ->
-                        throw new IllegalArgumentException("Cant't handle RBR: " + configurationCommand.propertyValue);
-                };
-            }
-            default ->
-                throw new IllegalArgumentException("Unknown Configuration command: " + configurationCommand.commandType);
+    public void encodeDataRequestWithDeviceCommand(DataRequestWithDeviceCommand request) throws IOException {
+        buff.put(request.command);
+        writeDataBytes(request.requestData, request.readTimeSlots);
+    }
+
+    public void encodeByteBufferDataRequest(ByteBufferDataRequest request) throws IOException {
+        buff.put(request.command);
+        writeDataBytes(request.requestData, request.readTimeSlots);
+    }
+
+    public void encodeSearchCommand(SearchCommand request) {
+        buff.put(request.cmd);
+    }
+
+    public void encodeConfigurationReadRequest(ConfigurationReadRequest<?> configurationCommand) throws IOException {
+        final byte result = CONFIGURATION_READ_CODES[configurationCommand.commandType.ordinal()];
+        if (result == 0) {
+            throw new RuntimeException("Unknown Configuration command: " + configurationCommand.commandType);
+        }
+        buff.put(result);
+    }
+
+    public void encodeConfigurationWriteRequest(ConfigurationWriteRequest<?> configurationCommand) throws IOException {
+        final byte[] codes = CONFIGURATION_WRITE_CODES[configurationCommand.commandType.ordinal()];
+        if (codes == null) {
+            throw new IllegalArgumentException("Unknown Configuration command: " + configurationCommand.commandType);
         }
+        buff.put(codes[((Enum<?>) configurationCommand.propertyValue).ordinal()]);
     }
 
-    private byte encodePulseRequest(PulseRequest request) {
+    public void encodePulseRequest(PulseRequest request) {
         byte data = (byte) 0b111_0_11_0_1;
         switch (request.pulsePower) {
             case PROGRAMMING_PULSE ->
@@ -336,63 +188,147 @@ public class Encoder {
             default ->
                 throw new RuntimeException();
         }
-        return data;
+        buff.put(data);
+    }
+
+    public void encodePulseTerminationRequest(PulseTerminationRequest request) {
+        buff.put((byte) 0xF1);
     }
 
-    private byte encodeResetDevice(ResetDeviceRequest request) {
-        return (byte) (encodeSpeed(request.speed) | 0b1100_00_01);
+    public void encodeResetDeviceRequest(ResetDeviceRequest request) {
+        buff.put((byte) (encodeSpeed(request.speed) | 0b1100_00_01));
     }
 
-    private byte encodeSearchAcceleratorCommand(SearchAcceleratorCommand request) {
-        return switch (request.searchAccelerator) {
+    public void encodeSearchAcceleratorCommand(SearchAcceleratorCommand request) {
+        buff.put(switch (request.searchAccelerator) {
             case ON ->
                 (byte) (encodeSpeed(request.speed) | (byte) 0b1011_00_01);
             case OFF ->
                 (byte) (encodeSpeed(request.speed) | 0b1010_00_01);
             default ->
                 throw new RuntimeException("Unknown search accelerator: " + request.searchAccelerator);
-        };
+        });
     }
 
-    private byte encodeSingleBitSendCommand(SingleBitRequest request) throws IOException {
-        return switch (request.dataToSend) {
+    public void encodeSingleBitRequest(SingleBitRequest request) throws IOException {
+        buff.put(switch (request.dataToSend) {
             case WRITE_0_BIT ->
                 (byte) (encodeSpeed(request.speed) | (request.armPowerDelivery ? 0b100_0_00_11 : 0b100_0_00_01));
             case WRITE_1_OR_READ_BIT ->
                 (byte) (encodeSpeed(request.speed) | (request.armPowerDelivery ? 0b100_1_00_11 : 0b100_1_00_01));
             default ->
                 throw new RuntimeException("Unknown dataToSend: " + request.dataToSend);
-        };
+        });
+    }
+
+    /**
+     * Encodes the 8 bits of b, the least significant bit first, as single bit
+     * commands without the need of 8 {@linkplain SingleBitRequest}s.
+     *
+     * @param b the byte to send.
+     * @param speed the speed of the time slots.
+     * @param armPowerDelivery arm the strong pullup after the last bit.
+     */
+    public void encodeBitsOfByte(byte b, OneWireSpeed speed, boolean armPowerDelivery) {
+        final int speedBits = encodeSpeed(speed);
+        for (int i = 0; i < 8; i++) {
+            final int dataBit = ((b >>> i) & 0x01) << 4;
+            final int armBit = armPowerDelivery && i == 7 ? 0b000_0_00_10 : 0;
+            buff.put((byte) (0b100_0_00_01 | speedBits | dataBit | armBit));
+        }
     }
 
     private byte encodeSpeed(OneWireSpeed speed) {
-        return switch (speed) {
-            case STANDARD ->
-                0b0000_00_00;
-            case FLEX ->
-                0b0000_01_00;
-            case OVERDRIVE ->
-                0b0000_10_00;
-            case STANDARD_11 ->
-                0b0000_11_00;
-            default ->
-                throw new RuntimeException("Unknown speed: " + speed);
-        };
+        return SPEED_CODES[speed.ordinal()];
     }
 
+    /**
+     * In data mode a 0xe3 in the data is sent twice, the echo of the adapter
+     * has it only once. So the response size does not change. Between the
+     * 0xe3 the data is written with bulk puts.
+     */
     private void writeDataBytes(final byte[] requestData, int readTimeSlots) throws IOException {
-        int lastWriteMark = 0;
-        for (int i = 0; i < requestData.length; i++) {
-            if (requestData[i] == SWITCH_TO_COMMAND_MODE_BYTE) {
-                buff.put(requestData, lastWriteMark, i - lastWriteMark);
-                buff.put(requestData[i]);
-                lastWriteMark = i;
-            }
+        int from = 0;
+        int escape;
+        while ((escape = indexOfSwitchToCommandMode(requestData, from)) >= 0) {
+            buff.put(requestData, from, escape + 1 - from);
+            buff.put(SWITCH_TO_COMMAND_MODE_BYTE);
+            from = escape + 1;
+        }
+        buff.put(requestData, from, requestData.length - from);
+        buff.put(readTimeSlotsCache, 0, readTimeSlots);
+    }
+
+    private void writeDataBytes(final ByteBuffer requestData, int readTimeSlots) throws IOException {
+        // absolute access, the position of requestData stays for the next send
+        int from = requestData.position();
+        int escape;
+        while ((escape = indexOfSwitchToCommandMode(requestData, from)) >= 0) {
+            putAbsolute(requestData, from, escape + 1 - from);
+            buff.put(SWITCH_TO_COMMAND_MODE_BYTE);
+            from = escape + 1;
         }
-        buff.put(requestData, lastWriteMark, requestData.length - lastWriteMark);
+        putAbsolute(requestData, from, requestData.limit() - from);
         buff.put(readTimeSlotsCache, 0, readTimeSlots);
     }
 
+    private void putAbsolute(ByteBuffer src, int offset, int length) {
+        buff.put(buff.position(), src, offset, length);
+        buff.position(buff.position() + length);
+    }
+
+    /**
+     * Returns a mask with 0x80 in every byte of x which is 0xe3, exact, without
+     * false positives caused by a borrow.
+     */
+    private static long switchToCommandModeMask(long x) {
+        final long y = x ^ SWITCH_TO_COMMAND_MODE_BYTES;
+        return ~(((y & 0x7f7f7f7f7f7f7f7fL) + 0x7f7f7f7f7f7f7f7fL) | y | 0x7f7f7f7f7f7f7f7fL);
+    }
+
+    /**
+     * Scans 8 bytes at once for 0xe3.
+     *
+     * @return the index of the first 0xe3 at or after from or -1.
+     */
+    private static int indexOfSwitchToCommandMode(byte[] data, int from) {
+        int i = from;
+        for (; i <= data.length - Long.BYTES; i += Long.BYTES) {
+            final long mask = switchToCommandModeMask((long) LITTLE_ENDIAN_LONG.get(data, i));
+            if (mask != 0) {
+                return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+        }
+        for (; i < data.length; i++) {
+            if (data[i] == SWITCH_TO_COMMAND_MODE_BYTE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Scans 8 bytes at once for 0xe3 up to the limit of data.
+     *
+     * @return the index of the first 0xe3 at or after from or -1.
+     */
+    private static int indexOfSwitchToCommandMode(ByteBuffer data, int from) {
+        final boolean littleEndian = data.order() == ByteOrder.LITTLE_ENDIAN;
+        int i = from;
+        for (; i <= data.limit() - Long.BYTES; i += Long.BYTES) {
+            final long mask = switchToCommandModeMask(data.getLong(i));
+            if (mask != 0) {
+                return i + ((littleEndian ? Long.numberOfTrailingZeros(mask) : Long.numberOfLeadingZeros(mask)) >>> 3);
+            }
+        }
+        for (; i < data.limit(); i++) {
+            if (data.get(i) == SWITCH_TO_COMMAND_MODE_BYTE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     void put(byte b) {
         buff.put(b);
     }
@@ -0,0 +1,437 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.ResetDeviceResponse;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A thread safe {@linkplain OneWireAdapter}. Every call is guarded by a fair
+ * {@linkplain ReentrantLock}, so waiting threads get the bus in the order they
+ * asked for it. With {@linkplain #withBus(BusOperation)} a sequence of calls
+ * is done without other threads in between, i.e. a Match ROM and the device
+ * command that follows.
+ *
+ * <pre>{@code
+ * double t = lockingAdapter.withBus(adapter -> container.convertAndReadTemperature(adapter, false));
+ * }</pre>
+ *
+ * A {@linkplain ReentrantLock} and not {@code synchronized} is used, so a
+ * virtual thread waiting for the bus does not pin its carrier thread.
+ *
+ * With {@linkplain #reserveBus()} the bus stays taken after the lock is
+ * released, i.e. while a strong pullup powers a conversion. Only
+ * {@linkplain #releaseBus(BusOperation)} uses the bus until then.
+ *
+ * @author Arne Plöse
+ */
+public class LockingOneWireAdapter implements OneWireAdapter {
+
+    /**
+     * A sequence of calls to the adapter, that may throw an
+     * {@linkplain IOException}.
+     *
+     * @param <T> the type of the result.
+     */
+    @FunctionalInterface
+    public interface BusOperation<T> {
+
+        T apply(OneWireAdapter adapter) throws IOException;
+    }
+
+    private final OneWireAdapter adapter;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    /**
+     * Guarded by lock.
+     */
+    private long busOperations;
+    /**
+     * Guarded by lock.
+     */
+    private boolean reserved;
+    /**
+     * Handed out only to the thread holding the lock.
+     */
+    private final OneWireTransaction transaction = new OneWireTransaction(this);
+
+    public LockingOneWireAdapter(OneWireAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    private void acquire() {
+        lock.lock();
+        if (lock.getHoldCount() == 1) {
+            while (reserved) {
+                released.awaitUninterruptibly();
+            }
+            busOperations++;
+        }
+    }
+
+    /**
+     * Keeps the bus reserved after the current thread releases it. All other
+     * calls wait until {@linkplain #releaseBus(BusOperation)} is done.
+     *
+     * @throws IllegalStateException if the current thread does not hold the
+     * bus or the bus is reserved already.
+     */
+    public void reserveBus() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("The bus is not held by the current thread");
+        }
+        if (reserved) {
+            throw new IllegalStateException("The bus is reserved already");
+        }
+        reserved = true;
+    }
+
+    /**
+     * Runs the operation on the reserved bus and then ends the reservation,
+     * even if the operation fails. This may be called from any thread.
+     *
+     * @param <T> the type of the result.
+     * @param operation the operation to run, i.e. terminate the strong pullup.
+     * @return the result of the operation.
+     * @throws IOException if the operation throws one.
+     * @throws IllegalStateException if the bus is not reserved.
+     */
+    public <T> T releaseBus(BusOperation<T> operation) throws IOException {
+        lock.lock();
+        try {
+            if (!reserved) {
+                throw new IllegalStateException("The bus is not reserved");
+            }
+            if (lock.getHoldCount() == 1) {
+                busOperations++;
+            }
+            try {
+                return operation.apply(this);
+            } finally {
+                reserved = false;
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the operation while holding the bus. The operation gets this
+     * adapter, so calls to it from within the operation do not block.
+     *
+     * @param <T> the type of the result.
+     * @param operation the operation to run.
+     * @return the result of the operation.
+     * @throws IOException if the operation throws one.
+     */
+    public <T> T withBus(BusOperation<T> operation) throws IOException {
+        acquire();
+        try {
+            return operation.apply(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times the bus was taken so far, the calls within
+     * {@linkplain #withBus(BusOperation)} count as one. Comparing two values
+     * taken while holding the bus tells, if someone else used the bus in
+     * between.
+     *
+     * @return the number of operations on the bus, including the current.
+     * @throws IllegalStateException if the current thread does not hold the
+     * bus.
+     */
+    public long getBusOperations() {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("The bus is not held by the current thread");
+        }
+        return busOperations;
+    }
+
+    /**
+     * Returns the wrapped adapter.
+     *
+     * @return the wrapped adapter.
+     */
+    public OneWireAdapter getAdapter() {
+        return adapter;
+    }
+
+    @Override
+    public void close() throws Exception {
+        acquire();
+        try {
+            adapter.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return adapter.isOpen();
+    }
+
+    @Override
+    public void searchDevices(byte searchCommand, LongConsumer longConsumer) throws IOException {
+        acquire();
+        try {
+            adapter.searchDevices(searchCommand, longConsumer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void searchDevices(byte searchCommand, Consumer<OneWireContainer> consumer) throws IOException {
+        acquire();
+        try {
+            adapter.searchDevices(searchCommand, consumer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The bus is held for the whole search, so no other thread gets between
+     * the search passes.
+     */
+    @Override
+    public boolean searchDevices(byte searchCommand, LongConsumer longConsumer, int maxRetries,
+            SearchStatistics statistics) throws IOException {
+        acquire();
+        try {
+            return adapter.searchDevices(searchCommand, longConsumer, maxRetries, statistics);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean sendSearchRequest(byte searchCommand, OWSearchIterator searchIterator) throws IOException {
+        acquire();
+        try {
+            return adapter.sendSearchRequest(searchCommand, searchIterator);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void searchFamily(byte familyCode, LongConsumer longConsumer) throws IOException {
+        acquire();
+        try {
+            adapter.searchFamily(familyCode, longConsumer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public OneWireSpeed getSpeedFromBaudrate() {
+        return adapter.getSpeedFromBaudrate();
+    }
+
+    @Override
+    public void sendMatchRomRequest(long address) throws IOException {
+        acquire();
+        try {
+            adapter.sendMatchRomRequest(address);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isOverdriveEnabled() {
+        return adapter.isOverdriveEnabled();
+    }
+
+    @Override
+    public void setOverdriveEnabled(boolean overdriveEnabled) {
+        acquire();
+        try {
+            adapter.setOverdriveEnabled(overdriveEnabled);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean sendOverdriveMatchRomRequest(long address) throws IOException {
+        acquire();
+        try {
+            return adapter.sendOverdriveMatchRomRequest(address);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean sendResumeRequest(long address) throws IOException {
+        acquire();
+        try {
+            return adapter.sendResumeRequest(address);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean sendOverdriveSkipRomRequest() throws IOException {
+        acquire();
+        try {
+            return adapter.sendOverdriveSkipRomRequest();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ResetDeviceResponse sendReset() throws IOException {
+        acquire();
+        try {
+            return adapter.sendReset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public byte[] sendRawDataRequest(byte[] data) throws IOException {
+        acquire();
+        try {
+            return adapter.sendRawDataRequest(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public byte sendByteWithPower(byte b, StrongPullupDuration strongPullupDuration, OneWireSpeed speed) throws IOException {
+        acquire();
+        try {
+            return adapter.sendByteWithPower(b, strongPullupDuration, speed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public byte sendByte(byte b, OneWireSpeed speed) throws IOException {
+        acquire();
+        try {
+            return adapter.sendByte(b, speed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <R> R sendCommand(OneWireRequest<R> request) throws IOException {
+        acquire();
+        try {
+            return adapter.sendCommand(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sendCommands(OneWireRequest<?>... requests) throws IOException {
+        acquire();
+        try {
+            adapter.sendCommands(requests);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Byte sendTerminatePulse() throws IOException {
+        acquire();
+        try {
+            return adapter.sendTerminatePulse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public byte[] sendSkipRomRequest() throws IOException {
+        acquire();
+        try {
+            return adapter.sendSkipRomRequest();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public byte sendReadByteRequest() throws IOException {
+        acquire();
+        try {
+            return adapter.sendReadByteRequest();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sendDeviceCommand(byte command) throws IOException {
+        acquire();
+        try {
+            adapter.sendDeviceCommand(command);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the transaction of this adapter, cleared, if the current thread
+     * holds the bus, i.e. within {@linkplain #withBus(BusOperation)}. The same
+     * transaction is handed out again, so it is only valid until the next
+     * call and must be sent before the bus is released. Otherwise a new
+     * transaction is returned.
+     *
+     * @return an empty transaction for this adapter.
+     */
+    @Override
+    public OneWireTransaction transaction() {
+        if (lock.isHeldByCurrentThread()) {
+            return transaction.clear();
+        }
+        return new OneWireTransaction(this);
+    }
+
+}
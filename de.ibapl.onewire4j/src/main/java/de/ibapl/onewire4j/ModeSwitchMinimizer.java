@@ -0,0 +1,110 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import de.ibapl.onewire4j.request.data.DataRequest;
+
+/**
+ * Reduces the switches between data mode and command mode of a frame. A switch
+ * costs one byte on the wire, 0xe1 to data mode or 0xe3 to command mode.
+ *
+ * Only what is semantically safe is done: the order of all requests which
+ * act on the 1-Wire bus or change the configuration of the adapter is kept.
+ * A configuration read only reads a parameter of the adapter. If it is
+ * between two data requests, it costs two switches. So it is moved behind the
+ * following data requests to the next request in command mode or to the end
+ * of the frame. Consecutive data requests already share one switch to data
+ * mode. A data request without any byte on the wire needs no switch at all.
+ *
+ * @author Arne Plöse
+ */
+class ModeSwitchMinimizer {
+
+    private ModeSwitchMinimizer() {
+    }
+
+    /**
+     * Returns true if the request sends bytes in data mode. The echo of a data
+     * request has one byte for each byte sent.
+     *
+     * @param request the request.
+     * @return true if data mode is needed.
+     */
+    static boolean needsDataMode(OneWireRequest<?> request) {
+        // the echo of a data request does not depend on the strong pullup duration
+        return request instanceof DataRequest && request.responseSize(StrongPullupDuration.SPUD_524) > 0;
+    }
+
+    /**
+     * Returns the requests in the order with the fewest mode switches.
+     *
+     * @param requests the requests of the frame.
+     * @param dataMode true if the adapter is in data mode at the start of the
+     * frame.
+     * @return requests itself if nothing is moved, or a new array.
+     */
+    static OneWireRequest<?>[] minimize(OneWireRequest<?>[] requests, boolean dataMode) {
+        if (!hasConfigurationReadInDataMode(requests, dataMode)) {
+            return requests;
+        }
+        final OneWireRequest<?>[] result = new OneWireRequest<?>[requests.length];
+        final OneWireRequest<?>[] deferred = new OneWireRequest<?>[requests.length];
+        int count = 0;
+        int deferredCount = 0;
+        for (OneWireRequest<?> request : requests) {
+            if (request instanceof DataRequest) {
+                result[count++] = request;
+                dataMode |= needsDataMode(request);
+            } else if (dataMode && request instanceof ConfigurationReadRequest) {
+                deferred[deferredCount++] = request;
+            } else {
+                // command mode, the deferred configuration reads first
+                System.arraycopy(deferred, 0, result, count, deferredCount);
+                count += deferredCount;
+                deferredCount = 0;
+                result[count++] = request;
+                dataMode = false;
+            }
+        }
+        System.arraycopy(deferred, 0, result, count, deferredCount);
+        return result;
+    }
+
+    private static boolean hasConfigurationReadInDataMode(OneWireRequest<?>[] requests, boolean dataMode) {
+        for (OneWireRequest<?> request : requests) {
+            if (request instanceof DataRequest) {
+                dataMode |= needsDataMode(request);
+            } else if (request instanceof ConfigurationReadRequest) {
+                if (dataMode) {
+                    return true;
+                }
+            } else {
+                dataMode = false;
+            }
+        }
+        return false;
+    }
+
+}
@@ -22,7 +22,9 @@
 package de.ibapl.onewire4j;
 
 import de.ibapl.onewire4j.request.data.RawDataRequest;
-import java.util.Arrays;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 
 /**
  *
@@ -30,36 +32,91 @@ import java.util.Arrays;
  */
 public class OWSearchIterator {
 
+    private final static VarHandle LITTLE_ENDIAN_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
     private int searchLastDiscrepancy = 0xFF;
 
     private boolean searchFinished;
 
     private long addr;
 
-    public void interpretSearch(final RawDataRequest searchCommandData) {
+    private long discrepancies;
+
+    private long savedRequestLow;
+    private long savedRequestHigh;
+    private int savedLastDiscrepancy;
+    private boolean savedSearchFinished;
 
-        addr = 0;
-        // set the temp Last Descrep to none
-        int temp_last_descrepancy = 0xFF;
+    /**
+     * The request data of the search accelerator, 2 bits for every address
+     * bit, the direction to take on a discrepancy in the upper bit.
+     */
+    private final RawDataRequest searchCommandData = new RawDataRequest(new byte[16]);
 
-        // interpret the search response sequence
-        for (int i = 0; i < 64; i++) {
-            final boolean discrepancyFlag = bitRead(searchCommandData.response, i * 2);
-            final boolean choosenPathFlag = bitRead(searchCommandData.response, i * 2 + 1);
+    public RawDataRequest getSearchCommandData() {
+        return searchCommandData;
+    }
 
-            // get the SerialNum bit
-            if (choosenPathFlag) {
-                addr |= 1L << i;
-            }
+    /**
+     * Take the direction of the path bit on every discrepancy in the next
+     * search pass. With the address of a known device as path the pass
+     * verifies this device.
+     *
+     * @param path the directions to take, the least significant bit first.
+     */
+    public void presetPath(long path) {
+        writePath(searchCommandData.requestData, path);
+    }
 
-            // check LastDiscrepancy
-            if (discrepancyFlag && !choosenPathFlag) {
-                temp_last_descrepancy = i + 1;
-            }
-        }
+    /**
+     * Saves the state before a search pass, so the pass can be repeated with
+     * {@linkplain #restoreState()}.
+     */
+    public void saveState() {
+        savedRequestLow = (long) LITTLE_ENDIAN_LONG.get(searchCommandData.requestData, 0);
+        savedRequestHigh = (long) LITTLE_ENDIAN_LONG.get(searchCommandData.requestData, 8);
+        savedLastDiscrepancy = searchLastDiscrepancy;
+        savedSearchFinished = searchFinished;
+    }
+
+    /**
+     * Restores the state saved with {@linkplain #saveState()}.
+     */
+    public void restoreState() {
+        LITTLE_ENDIAN_LONG.set(searchCommandData.requestData, 0, savedRequestLow);
+        LITTLE_ENDIAN_LONG.set(searchCommandData.requestData, 8, savedRequestHigh);
+        searchLastDiscrepancy = savedLastDiscrepancy;
+        searchFinished = savedSearchFinished;
+    }
+
+    /**
+     * Interpret the response of the last search pass in
+     * {@linkplain #getSearchCommandData()}.
+     */
+    public void interpretSearch() {
+        interpretSearch(searchCommandData);
+    }
+
+    /**
+     * The 128 bit response is read as two longs. The even bits are the
+     * discrepancy flags, the odd bits the chosen path, both are compressed to
+     * 64 bit with {@linkplain #compressEvenBits(long)}.
+     *
+     * @throws SearchResponseException if the response is inconsistent.
+     */
+    public void interpretSearch(final RawDataRequest searchCommandData) {
+        final long low = (long) LITTLE_ENDIAN_LONG.get(searchCommandData.response, 0);
+        final long high = (long) LITTLE_ENDIAN_LONG.get(searchCommandData.response, 8);
+
+        addr = compressEvenBits(low >>> 1) | (compressEvenBits(high >>> 1) << 32);
+        discrepancies = compressEvenBits(low) | (compressEvenBits(high) << 32);
+
+        // the last discrepancy where the 0 path was taken, 1 based
+        final long zeroPathTaken = discrepancies & ~addr;
+        final int temp_last_descrepancy = zeroPathTaken == 0 ? 0xFF : 64 - Long.numberOfLeadingZeros(zeroPathTaken);
 
         if (temp_last_descrepancy == 63) {
-            throw new RuntimeException("Error Nothing found request: " + searchCommandData);
+            throw new SearchResponseException("Error Nothing found request: " + searchCommandData);
         }
         // check for the last one
         if ((temp_last_descrepancy == searchLastDiscrepancy) || (temp_last_descrepancy == 0xFF)) {
@@ -71,26 +128,42 @@ public class OWSearchIterator {
 
         // only modify bits if not the first search
         if (searchLastDiscrepancy != 0xFF) {
-            Arrays.fill(searchCommandData.requestData, (byte) 0);
-
-            // set the bits in the added buffer
-            for (int i = 0; i < searchLastDiscrepancy - 1; i++) {
-                // before last discrepancy: go direction based on ID choosenPathFlag in response
-                if (bitRead(searchCommandData.response, i * 2 + 1)) {
-                    setBit(searchCommandData.requestData, (i * 2 + 1));
-                }
-            }
-            // at last discrepancy (go 1's direction) the rest are zeros
-            setBit(searchCommandData.requestData, ((searchLastDiscrepancy - 1) * 2 + 1));
+            // before last discrepancy: go the chosen path, at last discrepancy go 1's direction the rest are zeros
+            final long lastDiscrepancyBit = 1L << (searchLastDiscrepancy - 1);
+            writePath(searchCommandData.requestData, (addr & (lastDiscrepancyBit - 1)) | lastDiscrepancyBit);
         }
     }
 
-    private boolean bitRead(final byte[] bitBuffer, final int address) {
-        return ((bitBuffer[address / 8] >> address % 8) & 0x01) == 0x01;
+    /**
+     * Writes the path to the odd bits of the request, the even bits are 0.
+     */
+    private static void writePath(final byte[] requestData, final long path) {
+        LITTLE_ENDIAN_LONG.set(requestData, 0, spreadToEvenBits(path) << 1);
+        LITTLE_ENDIAN_LONG.set(requestData, 8, spreadToEvenBits(path >>> 32) << 1);
+    }
+
+    /**
+     * Moves the even bits of value to the lower 32 bits.
+     */
+    private static long compressEvenBits(long value) {
+        value &= 0x5555555555555555L;
+        value = (value | (value >>> 1)) & 0x3333333333333333L;
+        value = (value | (value >>> 2)) & 0x0f0f0f0f0f0f0f0fL;
+        value = (value | (value >>> 4)) & 0x00ff00ff00ff00ffL;
+        value = (value | (value >>> 8)) & 0x0000ffff0000ffffL;
+        return (value | (value >>> 16)) & 0x00000000ffffffffL;
     }
 
-    private void setBit(final byte[] bitBuffer, final int address) {
-        bitBuffer[address / 8] |= 0x01 << address % 8;
+    /**
+     * Moves the lower 32 bits of value to the even bits.
+     */
+    private static long spreadToEvenBits(long value) {
+        value &= 0x00000000ffffffffL;
+        value = (value | (value << 16)) & 0x0000ffff0000ffffL;
+        value = (value | (value << 8)) & 0x00ff00ff00ff00ffL;
+        value = (value | (value << 4)) & 0x0f0f0f0f0f0f0f0fL;
+        value = (value | (value << 2)) & 0x3333333333333333L;
+        return (value | (value << 1)) & 0x5555555555555555L;
     }
 
     public boolean isSearchFinished() {
@@ -101,4 +174,25 @@ public class OWSearchIterator {
         return addr;
     }
 
+    /**
+     * Returns the bits where devices with both bit values were found in the
+     * last search pass.
+     *
+     * @return the discrepancies, the least significant bit first.
+     */
+    public long getDiscrepancies() {
+        return discrepancies;
+    }
+
+    /**
+     * Returns the 1-based position of the last discrepancy where the 0 path
+     * was taken in the last search pass, or 0xFF if there is none. The next
+     * pass takes the 1 path there.
+     *
+     * @return the last discrepancy.
+     */
+    public int getLastDiscrepancy() {
+        return searchLastDiscrepancy;
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Searches the bus lazily, the next search pass is only sent when the next
+ * address is pulled. An {@linkplain IOException} is wrapped in an
+ * {@linkplain UncheckedIOException}.
+ *
+ * @author Arne Plöse
+ */
+public class OWSearchSpliterator implements Spliterator.OfLong {
+
+    private final OneWireAdapter adapter;
+
+    private final byte searchCommand;
+
+    private final OWSearchIterator searchIterator = new OWSearchIterator();
+
+    private boolean finished;
+
+    public OWSearchSpliterator(OneWireAdapter adapter, byte searchCommand) {
+        this.adapter = adapter;
+        this.searchCommand = searchCommand;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!adapter.sendSearchRequest(searchCommand, searchIterator)) {
+                // nothing found
+                finished = true;
+                return false;
+            }
+        } catch (IOException e) {
+            finished = true;
+            throw new UncheckedIOException(e);
+        }
+        finished = searchIterator.isSearchFinished();
+        action.accept(searchIterator.getAddress());
+        return true;
+    }
+
+    /**
+     * The search can not be split, every pass depends on the last one.
+     *
+     * @return null.
+     */
+    @Override
+    public OfLong trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return finished ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+
+}
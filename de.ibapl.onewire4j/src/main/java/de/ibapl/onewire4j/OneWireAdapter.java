@@ -22,14 +22,21 @@
 package de.ibapl.onewire4j;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.function.Consumer;
 import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice;
 import de.ibapl.onewire4j.request.OneWireRequest;
 import de.ibapl.onewire4j.request.communication.OneWireSpeed;
 import de.ibapl.onewire4j.request.communication.ResetDeviceResponse;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import de.ibapl.onewire4j.request.data.SearchCommand;
 
 /**
  *
@@ -66,6 +73,129 @@ public interface OneWireAdapter extends AutoCloseable {
      */
     void searchDevices(byte searchCommand, Consumer<OneWireContainer> consumer) throws IOException;
 
+    /**
+     * Search devices connected to the OneWire bus and validate every address.
+     * A search pass with an invalid CRC of the address or an inconsistent
+     * response is repeated up to maxRetries times. Invalid addresses are never
+     * passed to the longConsumer. If all retries fail, the search is given
+     * up.
+     *
+     * @param searchCommand
+     * @param longConsumer the functional interface which accept method to call.
+     * @param maxRetries the number of retries of a failed search pass.
+     * @param statistics the counters to update.
+     * @return false if the search was given up.
+     * @throws IOException if an error happens.
+     */
+    default boolean searchDevices(byte searchCommand, LongConsumer longConsumer, int maxRetries,
+            SearchStatistics statistics) throws IOException {
+        final OWSearchIterator searchIterator = new OWSearchIterator();
+        while (!searchIterator.isSearchFinished()) {
+            searchIterator.saveState();
+            boolean found;
+            int retries = 0;
+            while (true) {
+                statistics.incPasses();
+                try {
+                    found = sendSearchRequest(searchCommand, searchIterator);
+                    if (!found || OneWireContainer.isAsddressValid(searchIterator.getAddress())) {
+                        break;
+                    }
+                    statistics.incCrcFailures();
+                } catch (SearchResponseException e) {
+                    statistics.incInconsistentResponses();
+                }
+                if (retries == maxRetries) {
+                    statistics.incAbortedSearches();
+                    return false;
+                }
+                retries++;
+                statistics.incRetries();
+                searchIterator.restoreState();
+            }
+            if (!found) {
+                // nothing found
+                return true;
+            }
+            longConsumer.accept(searchIterator.getAddress());
+        }
+        return true;
+    }
+
+    /**
+     * Search devices connected to the OneWire bus lazily. Every search pass is
+     * only sent when the next address is pulled, so a short-circuiting
+     * operation like {@linkplain LongStream#findFirst()} stops the search. An
+     * {@linkplain IOException} is thrown as {@linkplain UncheckedIOException}.
+     *
+     * @param searchCommand
+     * @return the addresses of the devices found.
+     */
+    default LongStream searchAddresses(byte searchCommand) {
+        return StreamSupport.longStream(new OWSearchSpliterator(this, searchCommand), false);
+    }
+
+    /**
+     * Search devices connected to the OneWire bus lazily like
+     * {@linkplain #searchAddresses(byte)}. The container is only created and
+     * initialized when it is pulled.
+     *
+     * @param searchCommand
+     * @return the containers of the devices found.
+     */
+    default Stream<OneWireContainer> searchContainers(byte searchCommand) {
+        return searchAddresses(searchCommand).mapToObj((long address) -> {
+            final OneWireDevice device = OneWireDevice.fromAdress(address);
+            try {
+                device.init(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return device;
+        });
+    }
+
+    /**
+     * Does one search pass with the search accelerator along the path in
+     * {@linkplain OWSearchIterator#getSearchCommandData()} and interprets the
+     * response.
+     *
+     * @param searchCommand
+     * @param searchIterator holds the path to take and gets the result.
+     * @return true if a device was found, its address is in
+     * {@linkplain OWSearchIterator#getAddress()}.
+     * @throws IOException if an error happens.
+     * @throws SearchResponseException if the response is inconsistent.
+     */
+    boolean sendSearchRequest(byte searchCommand, OWSearchIterator searchIterator) throws IOException;
+
+    /**
+     * Search only the devices of one family. The family code is preset as the
+     * first 8 bits of the search path, the search ends as soon as no more
+     * devices of this family are left. So it needs only as many search passes
+     * as devices of the family are connected.
+     *
+     * @param familyCode the family code of the devices to search.
+     * @param longConsumer the functional interface which accept method to call.
+     * @throws IOException if an error happens.
+     */
+    default void searchFamily(byte familyCode, LongConsumer longConsumer) throws IOException {
+        final OWSearchIterator searchIterator = new OWSearchIterator();
+        searchIterator.presetPath(familyCode & 0xffL);
+        while (sendSearchRequest(SearchCommand.SEARCH_ROM, searchIterator)) {
+            final long address = searchIterator.getAddress();
+            if ((byte) address != familyCode) {
+                // no device of this family at all
+                return;
+            }
+            longConsumer.accept(address);
+            // a discrepancy in the family code would lead to the next family
+            if (searchIterator.isSearchFinished() || searchIterator.getLastDiscrepancy() <= 8) {
+                return;
+            }
+        }
+    }
+
     /**
      * Returns the current {@linkplain OneWireSpeed}.
      *
@@ -75,6 +205,47 @@ public interface OneWireAdapter extends AutoCloseable {
 
     void sendMatchRomRequest(long address) throws IOException;
 
+    /**
+     * Returns whether devices may be selected at overdrive speed.
+     *
+     * @return true if overdrive speed is enabled.
+     */
+    boolean isOverdriveEnabled();
+
+    void setOverdriveEnabled(boolean overdriveEnabled);
+
+    /**
+     * Selects the device with Overdrive Match ROM and switches the bus to
+     * overdrive speed. If overdrive is disabled or the device does not answer
+     * at overdrive speed, the device is selected with a Match ROM at regular
+     * speed.
+     *
+     * @param address the address of the device to select.
+     * @return true if the device was selected at overdrive speed.
+     * @throws IOException if an error happens.
+     */
+    boolean sendOverdriveMatchRomRequest(long address) throws IOException;
+
+    /**
+     * Switches all overdrive capable devices with Overdrive Skip ROM to
+     * overdrive speed. If overdrive is disabled a Skip ROM at regular speed is
+     * sent.
+     *
+     * @return true if the bus is at overdrive speed.
+     * @throws IOException if an error happens.
+     */
+    boolean sendOverdriveSkipRomRequest() throws IOException;
+
+    /**
+     * Selects the device again with Resume ROM if it was selected with the
+     * last ROM command. Nothing is sent otherwise.
+     *
+     * @param address the address of the device to select.
+     * @return true if the device was selected with Resume ROM.
+     * @throws IOException if an error happens.
+     */
+    boolean sendResumeRequest(long address) throws IOException;
+
     ResetDeviceResponse sendReset() throws IOException;
 
     byte[] sendRawDataRequest(byte[] data) throws IOException;
@@ -87,10 +258,32 @@ public interface OneWireAdapter extends AutoCloseable {
 
     void sendCommands(OneWireRequest<?>... requests) throws IOException;
 
+    /**
+     * Returns a {@linkplain OneWireTransaction} to send reset, ROM and device
+     * commands in one frame. An adapter may hand out the same transaction
+     * again, cleared, so a transaction is only valid until the next call.
+     *
+     * @return an empty transaction for this adapter.
+     */
+    default OneWireTransaction transaction() {
+        return new OneWireTransaction(this);
+    }
+
     Byte sendTerminatePulse() throws IOException;
 
     byte[] sendSkipRomRequest() throws IOException;
 
     byte sendReadByteRequest() throws IOException;
 
+    /**
+     * Sends a device command without data and read time slots, like Convert
+     * T. The device must be selected before.
+     *
+     * @param command the command to send.
+     * @throws IOException if an error happens.
+     */
+    default void sendDeviceCommand(byte command) throws IOException {
+        sendCommand(new DataRequestWithDeviceCommand(command, 0, 0));
+    }
+
 }
@@ -0,0 +1,308 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.LockingOneWireAdapter.BusOperation;
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice;
+import de.ibapl.onewire4j.container.TemperatureContainer;
+import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import de.ibapl.spsw.api.SerialPortSocket;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Manages several 1-Wire busses, each with its own adapter. Every bus has a
+ * worker thread, so the busses are used in parallel and a cycle over all
+ * busses takes as long as the slowest bus. The adapters are wrapped in a
+ * {@linkplain LockingOneWireAdapter}.
+ *
+ * Busses are added before use, adding is not thread safe.
+ *
+ * @author Arne Plöse
+ */
+public class OneWireBusManager implements AutoCloseable {
+
+    private final static Logger LOG = Logger.getLogger(OneWireBusManager.class.getCanonicalName());
+
+    private final List<LockingOneWireAdapter> busses = new ArrayList<>();
+    private final List<ExecutorService> workers = new ArrayList<>();
+    private final List<List<OneWireContainer>> containers = new ArrayList<>();
+    private final List<List<TemperatureContainer>> temperatureContainers = new ArrayList<>();
+    private final List<Boolean> parasitePowerNeeded = new ArrayList<>();
+    private final List<SearchStatistics> searchStatistics = new ArrayList<>();
+    private final Map<Long, Integer> busOfAddress = new ConcurrentHashMap<>();
+
+    /**
+     * The default number of retries of a failed search pass.
+     */
+    public final static int DEFAULT_SEARCH_RETRIES = 3;
+
+    private volatile int searchRetries = DEFAULT_SEARCH_RETRIES;
+
+    /**
+     * Opens an adapter on the serial port and adds it as a new bus.
+     *
+     * @see AdapterFactory#open(SerialPortSocket, int, SerialPortSpeed)
+     *
+     * @param adapterFactory the factory to open the adapter.
+     * @param serialPortSocket the serial port to use.
+     * @param tries number of tries to open the adapter.
+     * @param maxSerialPortSpeed the highest speed of the serial port to try.
+     * @return the index of the new bus.
+     * @throws IOException on error.
+     */
+    public int open(AdapterFactory adapterFactory, SerialPortSocket serialPortSocket, int tries,
+            SerialPortSpeed maxSerialPortSpeed) throws IOException {
+        return addBus(adapterFactory.open(serialPortSocket, tries, maxSerialPortSpeed));
+    }
+
+    /**
+     * Adds the adapter as a new bus.
+     *
+     * @param adapter the adapter of the bus.
+     * @return the index of the new bus.
+     */
+    public int addBus(OneWireAdapter adapter) {
+        final int index = busses.size();
+        busses.add(adapter instanceof LockingOneWireAdapter lockingAdapter ? lockingAdapter : new LockingOneWireAdapter(adapter));
+        workers.add(Executors.newSingleThreadExecutor((Runnable r) -> {
+            final Thread t = new Thread(r, "OneWireBus-" + index);
+            t.setDaemon(true);
+            return t;
+        }));
+        containers.add(Collections.emptyList());
+        temperatureContainers.add(Collections.emptyList());
+        parasitePowerNeeded.add(Boolean.FALSE);
+        searchStatistics.add(new SearchStatistics());
+        return index;
+    }
+
+    public int getSearchRetries() {
+        return searchRetries;
+    }
+
+    /**
+     * Sets the number of retries of a failed search pass in
+     * {@linkplain #discover()}.
+     *
+     * @param searchRetries the number of retries.
+     */
+    public void setSearchRetries(int searchRetries) {
+        this.searchRetries = searchRetries;
+    }
+
+    /**
+     * Returns the counters of the searches on the bus.
+     *
+     * @param index the index of the bus.
+     * @return the counters of the bus.
+     */
+    public SearchStatistics getSearchStatistics(int index) {
+        return searchStatistics.get(index);
+    }
+
+    public int getBusCount() {
+        return busses.size();
+    }
+
+    public LockingOneWireAdapter getBus(int index) {
+        return busses.get(index);
+    }
+
+    /**
+     * Returns the index of the bus the device was found on by
+     * {@linkplain #discover()}.
+     *
+     * @param address the address of the device.
+     * @return the index of the bus or -1 if the device is unknown.
+     */
+    public int getBusOf(long address) {
+        final Integer result = busOfAddress.get(address);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Returns the devices found on the bus by {@linkplain #discover()}.
+     *
+     * @param index the index of the bus.
+     * @return the devices of the bus.
+     */
+    public List<OneWireContainer> getContainers(int index) {
+        return containers.get(index);
+    }
+
+    /**
+     * Runs the operation on the worker of the bus.
+     *
+     * @param <T> the type of the result.
+     * @param index the index of the bus.
+     * @param operation the operation to run.
+     * @return the future of the result, an {@linkplain IOException} is
+     * wrapped in a {@linkplain UncheckedIOException}.
+     */
+    public <T> CompletableFuture<T> submit(int index, BusOperation<T> operation) {
+        final LockingOneWireAdapter bus = busses.get(index);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return bus.withBus(operation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, workers.get(index));
+    }
+
+    /**
+     * Searches all busses in parallel and rebuilds the index of addresses to
+     * busses. Search passes with an invalid address are retried, see
+     * {@linkplain #getSearchStatistics(int)}. If the search on a bus is given
+     * up, the containers found before on that bus are kept, so a noisy bus
+     * does not lose its devices.
+     *
+     * @throws IOException if the search on a bus fails.
+     */
+    public void discover() throws IOException {
+        final List<CompletableFuture<List<OneWireContainer>>> searches = new ArrayList<>(busses.size());
+        final List<CompletableFuture<Boolean>> parasitePowers = new ArrayList<>(busses.size());
+        for (int i = 0; i < busses.size(); i++) {
+            final int index = i;
+            final SearchStatistics statistics = searchStatistics.get(i);
+            searches.add(submit(i, (OneWireAdapter adapter) -> {
+                final List<Long> addresses = new ArrayList<>();
+                if (!adapter.searchDevices(SearchCommand.SEARCH_ROM, (long address) -> addresses.add(address),
+                        searchRetries, statistics)) {
+                    LOG.log(Level.WARNING, "Search on bus {0} given up, keep the devices found before, {1}",
+                            new Object[]{index, statistics});
+                    return null;
+                }
+                final List<OneWireContainer> result = new ArrayList<>(addresses.size());
+                for (long address : addresses) {
+                    final OneWireDevice device = OneWireDevice.fromAdress(address);
+                    device.init(adapter);
+                    result.add(device);
+                }
+                return result;
+            }));
+            parasitePowers.add(submit(i, (OneWireAdapter adapter) -> TemperatureContainer.isAnyTempDeviceUsingParasitePower(adapter)));
+        }
+        busOfAddress.clear();
+        for (int i = 0; i < busses.size(); i++) {
+            final List<OneWireContainer> found = join(searches.get(i));
+            if (found != null) {
+                containers.set(i, Collections.unmodifiableList(found));
+                final List<TemperatureContainer> tcs = new ArrayList<>();
+                for (OneWireContainer owc : found) {
+                    if (owc instanceof TemperatureContainer tc) {
+                        tcs.add(tc);
+                    }
+                }
+                temperatureContainers.set(i, tcs);
+            }
+            parasitePowerNeeded.set(i, join(parasitePowers.get(i)));
+            for (OneWireContainer owc : containers.get(i)) {
+                final Integer old = busOfAddress.put(owc.getAddress(), i);
+                if (old != null) {
+                    LOG.log(Level.WARNING, "Device {0} found on bus {1} and bus {2}", new Object[]{owc.getAddressAsString(), old, i});
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the temperatures of all {@linkplain TemperatureContainer}s found by
+     * {@linkplain #discover()} with
+     * {@linkplain TemperatureContainer#readAll(OneWireAdapter, java.util.Collection, boolean)}
+     * on all busses in parallel.
+     *
+     * @return the readings, indexed by bus.
+     * @throws IOException if the read on a bus fails.
+     */
+    public TemperatureContainer.Readings[] readAllTemperatures() throws IOException {
+        final List<CompletableFuture<TemperatureContainer.Readings>> reads = new ArrayList<>(busses.size());
+        for (int i = 0; i < busses.size(); i++) {
+            final List<TemperatureContainer> tcs = temperatureContainers.get(i);
+            final boolean parasitePower = parasitePowerNeeded.get(i);
+            reads.add(submit(i, (OneWireAdapter adapter) -> TemperatureContainer.readAll(adapter, tcs, parasitePower)));
+        }
+        final TemperatureContainer.Readings[] result = new TemperatureContainer.Readings[busses.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = join(reads.get(i));
+        }
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uioe) {
+                throw uioe.getCause();
+            } else if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops the workers and closes all adapters.
+     *
+     * @throws Exception the first exception of closing an adapter.
+     */
+    @Override
+    public void close() throws Exception {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        Exception exception = null;
+        for (int i = 0; i < busses.size(); i++) {
+            try {
+                workers.get(i).awaitTermination(10, TimeUnit.SECONDS);
+                busses.get(i).close();
+            } catch (Exception e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.request.CommandRequest;
+import de.ibapl.onewire4j.request.PulseTerminationRequest;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.PulsePower;
+import de.ibapl.onewire4j.request.communication.PulseRequest;
+import de.ibapl.onewire4j.request.communication.PulseType;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.communication.SearchAccelerator;
+import de.ibapl.onewire4j.request.communication.SearchAcceleratorCommand;
+import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import de.ibapl.onewire4j.request.data.RawDataRequest;
+import de.ibapl.onewire4j.request.data.ReadBytesRequest;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+
+/**
+ * The requests an adapter sends over and over again: resets, ROM commands and
+ * device commands without data. Every request is created once and handed out
+ * again with {@linkplain de.ibapl.onewire4j.request.OneWireRequest#resetState()}.
+ * The {@linkplain Decoder} fills the
+ * response of a request in place, so a response is only valid until the same
+ * request is sent again.
+ *
+ * This class is not thread safe, each adapter has its own pool.
+ *
+ * @author Arne Plöse
+ */
+public class OneWireRequestPool {
+
+    private final ResetDeviceRequest[] resetDeviceRequests = new ResetDeviceRequest[OneWireSpeed.values().length];
+    private final DataRequestWithDeviceCommand[] deviceCommandRequests = new DataRequestWithDeviceCommand[256];
+    private final DataRequestWithDeviceCommand[] matchRomRequests = new DataRequestWithDeviceCommand[256];
+    private final RawDataRequest addressRequest = new RawDataRequest(OneWireContainer.ADDRESS_SIZE, 0);
+    private final ReadBytesRequest readByteRequest = new ReadBytesRequest(1);
+    private final SearchCommand[] searchCommands = new SearchCommand[256];
+    private final SearchAcceleratorCommand[][] searchAcceleratorCommands
+            = new SearchAcceleratorCommand[SearchAccelerator.values().length][OneWireSpeed.values().length];
+    private final ConfigurationWriteRequest<?>[] strongPullupDurationRequests
+            = new ConfigurationWriteRequest<?>[StrongPullupDuration.values().length];
+    private final CommandRequest<?>[] terminatePulseRequests = {new PulseTerminationRequest(),
+        PulseRequest.of(PulsePower.STRONG_PULLUP, PulseType.DISARM), new PulseTerminationRequest()};
+
+    /**
+     * Returns the reset at the speed.
+     *
+     * @param speed the speed of the reset.
+     * @return the reset, ready to send.
+     */
+    public ResetDeviceRequest resetDeviceRequest(OneWireSpeed speed) {
+        ResetDeviceRequest result = resetDeviceRequests[speed.ordinal()];
+        if (result == null) {
+            result = ResetDeviceRequest.of(speed);
+            resetDeviceRequests[speed.ordinal()] = result;
+        } else {
+            result.resetState();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the device command without data and read time slots, like Skip
+     * ROM, Resume ROM or Convert T.
+     *
+     * @param command the command.
+     * @return the command, ready to send.
+     */
+    public DataRequestWithDeviceCommand deviceCommandRequest(byte command) {
+        DataRequestWithDeviceCommand result = deviceCommandRequests[command & 0xff];
+        if (result == null) {
+            result = new DataRequestWithDeviceCommand(command, 0, 0);
+            deviceCommandRequests[command & 0xff] = result;
+        } else {
+            result.resetState();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the Match ROM or Overdrive Match ROM with the address as request
+     * data. The address echo is in
+     * {@linkplain DataRequestWithDeviceCommand#response}.
+     *
+     * @param matchRomCommand {@linkplain Encoder#MATCH_ROM_CMD} or
+     * {@linkplain Encoder#OVERDRIVE_MATCH_ROM_CMD}.
+     * @param address the address of the device to select.
+     * @return the ROM command, ready to send.
+     */
+    public DataRequestWithDeviceCommand matchRomRequest(byte matchRomCommand, long address) {
+        DataRequestWithDeviceCommand result = matchRomRequests[matchRomCommand & 0xff];
+        if (result == null) {
+            result = new DataRequestWithDeviceCommand(matchRomCommand, OneWireContainer.ADDRESS_SIZE, 0);
+            matchRomRequests[matchRomCommand & 0xff] = result;
+        } else {
+            result.resetState();
+        }
+        OneWireContainer.arrayOfAddress(address, result.requestData);
+        return result;
+    }
+
+    /**
+     * Returns the address without a ROM command, i.e. to send it at overdrive
+     * speed after the Overdrive Match ROM command. The address echo is in
+     * {@linkplain RawDataRequest#response}.
+     *
+     * @param address the address of the device to select.
+     * @return the address, ready to send.
+     */
+    public RawDataRequest addressRequest(long address) {
+        addressRequest.resetState();
+        OneWireContainer.arrayOfAddress(address, addressRequest.requestData);
+        return addressRequest;
+    }
+
+    /**
+     * Returns the request to read one byte.
+     *
+     * @return the request, ready to send.
+     */
+    public ReadBytesRequest readByteRequest() {
+        return (ReadBytesRequest) readByteRequest.resetState();
+    }
+
+    /**
+     * Returns the search command, the echo is in
+     * {@linkplain SearchCommand#response}.
+     *
+     * @param command the search command, i.e.
+     * {@linkplain SearchCommand#SEARCH_ROM}.
+     * @return the search command, ready to send.
+     */
+    public SearchCommand searchCommand(byte command) {
+        SearchCommand result = searchCommands[command & 0xff];
+        if (result == null) {
+            result = new SearchCommand(command);
+            searchCommands[command & 0xff] = result;
+        } else {
+            result.resetState();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the command to switch the search accelerator and the speed of
+     * the DS2480B.
+     *
+     * @param accelerator on or off.
+     * @param speed the speed of the following data.
+     * @return the command, ready to send.
+     */
+    public SearchAcceleratorCommand searchAcceleratorCommand(SearchAccelerator accelerator, OneWireSpeed speed) {
+        SearchAcceleratorCommand result = searchAcceleratorCommands[accelerator.ordinal()][speed.ordinal()];
+        if (result == null) {
+            result = SearchAcceleratorCommand.of(accelerator, speed);
+            searchAcceleratorCommands[accelerator.ordinal()][speed.ordinal()] = result;
+        } else {
+            result.resetState();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the configuration write of the strong pullup duration.
+     *
+     * @param strongPullupDuration the strong pullup duration.
+     * @return the configuration write, ready to send.
+     */
+    @SuppressWarnings("unchecked")
+    public ConfigurationWriteRequest<StrongPullupDuration> strongPullupDurationRequest(
+            StrongPullupDuration strongPullupDuration) {
+        ConfigurationWriteRequest<StrongPullupDuration> result
+                = (ConfigurationWriteRequest<StrongPullupDuration>) strongPullupDurationRequests[strongPullupDuration.ordinal()];
+        if (result == null) {
+            result = ConfigurationWriteRequest.of(strongPullupDuration);
+            strongPullupDurationRequests[strongPullupDuration.ordinal()] = result;
+        } else {
+            result.resetState();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the frame to terminate a strong pullup: pulse termination,
+     * disarm the strong pullup and pulse termination. The response of the
+     * last request tells the result.
+     *
+     * @return the frame, ready to send.
+     */
+    public CommandRequest<?>[] terminatePulseRequests() {
+        for (CommandRequest<?> request : terminatePulseRequests) {
+            request.resetState();
+        }
+        return terminatePulseRequests;
+    }
+
+}
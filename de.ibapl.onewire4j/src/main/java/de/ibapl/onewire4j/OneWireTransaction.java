@@ -0,0 +1,222 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects reset, ROM commands and device commands and sends them with one
+ * {@linkplain OneWireAdapter#sendCommands(OneWireRequest...)} in a single
+ * frame. The address echo of a Match ROM is checked after all responses are
+ * read.
+ *
+ * <pre>{@code
+ * adapter.transaction().matchRom(address).request(readRequest).execute();
+ * }</pre>
+ *
+ * @author Arne Plöse
+ */
+public class OneWireTransaction {
+
+    private static class MatchRomRequest extends DataRequestWithDeviceCommand {
+
+        private long address;
+
+        MatchRomRequest(long address) {
+            super(Encoder.MATCH_ROM_CMD, OneWireContainer.ADDRESS_SIZE, 0);
+            setAddress(address);
+        }
+
+        final void setAddress(long address) {
+            this.address = address;
+            OneWireContainer.arrayOfAddress(address, requestData);
+        }
+
+        boolean isMatched() {
+            return OneWireContainer.addressOf(response) == address;
+        }
+
+    }
+
+    private final OneWireAdapter adapter;
+    private final List<OneWireRequest<?>> requests = new ArrayList<>();
+    private final List<MatchRomRequest> matchRomRequests = new ArrayList<>();
+    /**
+     * The resets and ROM commands created so far, they are used again after
+     * {@linkplain #clear()}.
+     */
+    private final List<ResetDeviceRequest> resetPool = new ArrayList<>();
+    private final List<MatchRomRequest> matchRomPool = new ArrayList<>();
+    private final List<DataRequestWithDeviceCommand> skipRomPool = new ArrayList<>();
+    private int resets;
+    private int skipRoms;
+    private OneWireRequest<?>[] requestArray = new OneWireRequest<?>[0];
+    private boolean requestArrayValid;
+
+    public OneWireTransaction(OneWireAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    /**
+     * Adds a reset.
+     *
+     * @return {@code this} for method chaining.
+     */
+    public OneWireTransaction reset() {
+        final OneWireSpeed speed = adapter.getSpeedFromBaudrate();
+        if (resets == resetPool.size()) {
+            resetPool.add(ResetDeviceRequest.of(speed));
+        } else if (resetPool.get(resets).speed != speed) {
+            resetPool.set(resets, ResetDeviceRequest.of(speed));
+        }
+        return request(resetPool.get(resets++));
+    }
+
+    /**
+     * Adds a reset and a Match ROM for the address.
+     *
+     * @param address the address of the device to select.
+     * @return {@code this} for method chaining.
+     */
+    public OneWireTransaction matchRom(long address) {
+        reset();
+        final int index = matchRomRequests.size();
+        if (index == matchRomPool.size()) {
+            matchRomPool.add(new MatchRomRequest(address));
+        } else {
+            matchRomPool.get(index).setAddress(address);
+        }
+        final MatchRomRequest matchRomRequest = matchRomPool.get(index);
+        matchRomRequests.add(matchRomRequest);
+        return request(matchRomRequest);
+    }
+
+    /**
+     * Adds a reset and a Skip ROM.
+     *
+     * @return {@code this} for method chaining.
+     */
+    public OneWireTransaction skipRom() {
+        reset();
+        if (skipRoms == skipRomPool.size()) {
+            skipRomPool.add(new DataRequestWithDeviceCommand(Encoder.SKIP_ROM_CMD, 0, 0));
+        }
+        return request(skipRomPool.get(skipRoms++));
+    }
+
+    /**
+     * Adds a request, the device command with its read time slots.
+     *
+     * @param request the request to add.
+     * @return {@code this} for method chaining.
+     */
+    public OneWireTransaction request(OneWireRequest<?> request) {
+        requests.add(request);
+        requestArrayValid = false;
+        return this;
+    }
+
+    /**
+     * Returns the number of requests including the resets and ROM commands.
+     *
+     * @return the number of requests.
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Removes all requests, so this transaction can be reused. The resets and
+     * ROM commands are kept and used again, so a transaction with the same
+     * number of requests allocates nothing.
+     *
+     * @return {@code this} for method chaining.
+     */
+    public OneWireTransaction clear() {
+        requests.clear();
+        matchRomRequests.clear();
+        resets = 0;
+        skipRoms = 0;
+        requestArrayValid = false;
+        return this;
+    }
+
+    /**
+     * Sends all requests in one frame without checking the address echo of the
+     * Match ROMs.
+     *
+     * @see #isMatched(int)
+     *
+     * @throws IOException if an error happens.
+     */
+    public void send() throws IOException {
+        if (!requestArrayValid) {
+            if (requestArray.length != requests.size()) {
+                requestArray = new OneWireRequest<?>[requests.size()];
+            }
+            requests.toArray(requestArray);
+            requestArrayValid = true;
+        }
+        for (OneWireRequest<?> request : requestArray) {
+            request.resetState();
+        }
+        adapter.sendCommands(requestArray);
+    }
+
+    /**
+     * Returns true if the address echo of a Match ROM matches the address.
+     *
+     * @param index the index of the Match ROM in the order of
+     * {@linkplain #matchRom(long)}.
+     * @return true if the device was selected.
+     */
+    public boolean isMatched(int index) {
+        return matchRomRequests.get(index).isMatched();
+    }
+
+    /**
+     * Sends all requests in one frame and checks the address echo of the Match
+     * ROMs.
+     *
+     * @throws IOException if an error happens.
+     * @throws IllegalArgumentException if an address echo does not match.
+     */
+    public void execute() throws IOException {
+        send();
+        // no iterator, a reused transaction allocates nothing
+        for (int i = 0; i < matchRomRequests.size(); i++) {
+            final MatchRomRequest matchRomRequest = matchRomRequests.get(i);
+            if (!matchRomRequest.isMatched()) {
+                throw new IllegalArgumentException("result (" + OneWireContainer.addressToString(OneWireContainer.addressOf(matchRomRequest.response))
+                        + ") is not adress (" + OneWireContainer.addressToString(matchRomRequest.address) + ")  to match");
+            }
+        }
+    }
+
+}
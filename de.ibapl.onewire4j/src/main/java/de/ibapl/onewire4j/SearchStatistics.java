@@ -0,0 +1,117 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the validated search, usually one instance per bus. The
+ * counters may be read from any thread.
+ *
+ * @see OneWireAdapter#searchDevices(byte, java.util.function.LongConsumer, int, SearchStatistics)
+ *
+ * @author Arne Plöse
+ */
+public class SearchStatistics {
+
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder crcFailures = new LongAdder();
+    private final LongAdder inconsistentResponses = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder abortedSearches = new LongAdder();
+
+    void incPasses() {
+        passes.increment();
+    }
+
+    void incCrcFailures() {
+        crcFailures.increment();
+    }
+
+    void incInconsistentResponses() {
+        inconsistentResponses.increment();
+    }
+
+    void incRetries() {
+        retries.increment();
+    }
+
+    void incAbortedSearches() {
+        abortedSearches.increment();
+    }
+
+    /**
+     * Returns the number of search passes sent, the retries included.
+     *
+     * @return the number of search passes.
+     */
+    public long getPasses() {
+        return passes.sum();
+    }
+
+    /**
+     * Returns the number of search passes with an invalid CRC of the address.
+     *
+     * @return the number of search passes with an invalid CRC.
+     */
+    public long getCrcFailures() {
+        return crcFailures.sum();
+    }
+
+    /**
+     * Returns the number of search passes with an inconsistent response, see
+     * {@linkplain SearchResponseException}.
+     *
+     * @return the number of search passes with an inconsistent response.
+     */
+    public long getInconsistentResponses() {
+        return inconsistentResponses.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of searches given up after all retries failed.
+     *
+     * @return the number of aborted searches.
+     */
+    public long getAbortedSearches() {
+        return abortedSearches.sum();
+    }
+
+    public void reset() {
+        passes.reset();
+        crcFailures.reset();
+        inconsistentResponses.reset();
+        retries.reset();
+        abortedSearches.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchStatistics{passes=" + getPasses() + ", crcFailures=" + getCrcFailures() + ", inconsistentResponses="
+                + getInconsistentResponses() + ", retries=" + getRetries() + ", abortedSearches=" + getAbortedSearches() + "}";
+    }
+
+}
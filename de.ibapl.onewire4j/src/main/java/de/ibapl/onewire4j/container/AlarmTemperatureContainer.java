@@ -21,6 +21,16 @@
  */
 package de.ibapl.onewire4j.container;
 
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.OneWireTransaction;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 /**
  *
  * @author Arne Plöse
@@ -30,6 +40,105 @@ public interface AlarmTemperatureContainer extends TemperatureContainer {
     @OneWireDataCommand
     public final static byte ALARM_SEARCH_CMD = (byte) 0xec;
 
+    /**
+     * Starts the conversion on all devices and then reads only the
+     * scratchpads of the containers which are outside of their TH/TL window.
+     * These are found with an alarm search, so a bus with no alarm costs one
+     * search pass instead of a scratchpad read per container.
+     *
+     * @param adapter
+     * @param containers the containers to watch.
+     * @param parasitePowerNeeded
+     * @return the temperatures of the alarming containers in the order of
+     * containers.
+     * @throws IOException
+     */
+    public static Readings readAlarming(OneWireAdapter adapter, Collection<? extends AlarmTemperatureContainer> containers,
+            boolean parasitePowerNeeded) throws IOException {
+        final Instant ts = TemperatureContainer.sendDoConvertRequestToAll(adapter, parasitePowerNeeded,
+                TemperatureContainer.getConversionTimeMillis(containers));
+        return TemperatureContainer.readScratchpads(adapter, searchAlarming(adapter, containers), ts);
+    }
+
+    /**
+     * Does an alarm search and returns the containers which answered. The
+     * alarm flags are set by the last conversion. The addresses of the
+     * containers are sorted into a long[], so every address found is looked
+     * up with a binary search without boxing.
+     *
+     * @param <T>
+     * @param adapter
+     * @param containers the containers to watch.
+     * @return the alarming containers in the order of containers.
+     * @throws IOException
+     */
+    public static <T extends AlarmTemperatureContainer> List<T> searchAlarming(OneWireAdapter adapter,
+            Collection<T> containers) throws IOException {
+        final long[] addresses = new long[containers.size()];
+        int index = 0;
+        for (T container : containers) {
+            addresses[index++] = container.getAddress();
+        }
+        Arrays.sort(addresses);
+        final boolean[] alarming = new boolean[addresses.length];
+        adapter.searchDevices(ALARM_SEARCH_CMD, (long address) -> {
+            final int found = Arrays.binarySearch(addresses, address);
+            if (found >= 0) {
+                alarming[found] = true;
+            }
+        });
+        final List<T> result = new ArrayList<>();
+        for (T container : containers) {
+            if (alarming[Arrays.binarySearch(addresses, container.getAddress())]) {
+                result.add(container);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the same alarm limits to the scratchpads of all containers. As
+     * many writes as fit into the buffer of the adapter are sent in one frame.
+     * The limits are only written to the scratchpad, use
+     * {@linkplain #copyScratchpad(OneWireAdapter, boolean)} to keep them after
+     * a power loss.
+     *
+     * @param adapter
+     * @param containers the containers to write.
+     * @param tL the low limit.
+     * @param tH the high limit.
+     * @throws IOException
+     * @throws IllegalArgumentException if a container does not answer.
+     */
+    public static void writeAlarmLimits(OneWireAdapter adapter, Collection<? extends AlarmTemperatureContainer> containers,
+            double tL, double tH) throws IOException {
+        final OneWireTransaction transaction = adapter.transaction();
+        int frameIndex = 0;
+        for (AlarmTemperatureContainer container : containers) {
+            transaction.matchRom(container.getAddress()).request(container.createWriteScratchpadRequest(tL, tH));
+            frameIndex++;
+            if (frameIndex == READ_ALL_SENSORS_PER_FRAME) {
+                transaction.execute();
+                transaction.clear();
+                frameIndex = 0;
+            }
+        }
+        if (frameIndex > 0) {
+            transaction.execute();
+        }
+    }
+
+    /**
+     * Creates the request to write the alarm limits into the scratchpad.
+     *
+     * @param tL the low limit.
+     * @param tH the high limit.
+     * @return the request to send after the device is selected.
+     */
+    default DataRequestWithDeviceCommand createWriteScratchpadRequest(double tL, double tH) {
+        return new DataRequestWithDeviceCommand(WRITE_SCRATCHPAD_CMD, new byte[]{(byte) tH, (byte) tL});
+    }
+
     default double getAlarmTempHighLimit(ReadScratchpadRequest request) {
         return request.responseReadData[2];
     }
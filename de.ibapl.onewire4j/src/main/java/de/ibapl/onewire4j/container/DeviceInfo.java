@@ -37,6 +37,14 @@ import java.lang.annotation.Target;
 @Target(TYPE)
 public @interface DeviceInfo {
 
+    /**
+     * The family code, the lowest byte of the address. -1 if the device is
+     * not bound to a family.
+     *
+     * @return the family code.
+     */
+    int familyCode() default -1;
+
     String iButtonName();
 
     String oneWireName();
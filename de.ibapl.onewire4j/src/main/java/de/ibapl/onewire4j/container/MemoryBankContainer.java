@@ -22,10 +22,13 @@
 package de.ibapl.onewire4j.container;
 
 import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.request.data.ByteBufferDataRequest;
 import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
 import de.ibapl.onewire4j.request.data.ReadBytesRequest;
 import de.ibapl.onewire4j.utils.CRC16;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public interface MemoryBankContainer extends OneWireContainer {
 
@@ -116,9 +119,20 @@ public interface MemoryBankContainer extends OneWireContainer {
 
     }
 
+    public class ReadMemoryBufferRequest extends ByteBufferDataRequest {
+
+        public ReadMemoryBufferRequest(int length) {
+            super(ReadMemoryRequest.READ_MEMORY_CMD, ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN), length);
+        }
+
+        public void setAddress(int address) {
+            requestData.putShort(0, (short) address);
+        }
+
+    }
+
     default public boolean writeToMemory(OneWireAdapter adapter, int startAddress, byte[] data, int from, int to) throws IOException {
-//TODO only once ?? adapter.sendMatchRomRequest(getAddress());
-        adapter.sendMatchRomRequest(getAddress());
+        selectDevice(adapter);
 
         final WriteScratchpadRequest writeRequest = new WriteScratchpadRequest();
         writeRequest.setAddress(startAddress);
@@ -144,8 +158,7 @@ public interface MemoryBankContainer extends OneWireContainer {
         crc16.resetCurrentCrc16();
 
         final ReadScratchpadRequest readRequest = new ReadScratchpadRequest();
-        //  TODO send resume
-        adapter.sendMatchRomRequest(getAddress());
+        reselectDevice(adapter);
         adapter.sendCommand(readRequest);
         if (readRequest.isPF()) {
             throw new IllegalArgumentException("scratchpad is not valid" + getAddressAsString() + " request: " + readRequest); // TODO figure out whats wrong ...
@@ -161,7 +174,7 @@ public interface MemoryBankContainer extends OneWireContainer {
         }
 
         final CopyScratchpadRequest copyScratchpadRequest = new CopyScratchpadRequest();
-        adapter.sendMatchRomRequest(getAddress());
+        reselectDevice(adapter);
         copyScratchpadRequest.setAuthorizationKey(readRequest);
         adapter.sendCommand(copyScratchpadRequest);
 
@@ -181,8 +194,37 @@ public interface MemoryBankContainer extends OneWireContainer {
     default byte[] readMemory(OneWireAdapter adapter, int address, int len) throws IOException {
         ReadMemoryRequest rm = new ReadMemoryRequest(len);
         rm.setAddress(address);
-        adapter.sendMatchRomRequest(getAddress());
-        adapter.sendCommand(rm);
+        if (this instanceof OverdriveContainer && adapter.isOverdriveEnabled()) {
+            // Switching to overdrive needs the response of the verification.
+            selectDevice(adapter);
+            adapter.sendCommand(rm);
+        } else {
+            adapter.transaction().matchRom(getAddress()).request(rm).execute();
+        }
+        return rm.responseReadData;
+    }
+
+    /**
+     * Reads the memory like {@linkplain #readMemory(OneWireAdapter, int, int)},
+     * but the data is not copied out of the receive buffer of the adapter.
+     *
+     * @param adapter the adapter to use.
+     * @param address the first address to read.
+     * @param len the number of bytes to read.
+     * @return a view into the receive buffer of the adapter, only valid until
+     * the adapter reads the next response.
+     * @throws IOException if an error happens.
+     */
+    default ByteBuffer readMemoryBuffer(OneWireAdapter adapter, int address, int len) throws IOException {
+        final ReadMemoryBufferRequest rm = new ReadMemoryBufferRequest(len);
+        rm.setAddress(address);
+        if (this instanceof OverdriveContainer && adapter.isOverdriveEnabled()) {
+            // Switching to overdrive needs the response of the verification.
+            selectDevice(adapter);
+            adapter.sendCommand(rm);
+        } else {
+            adapter.transaction().matchRom(getAddress()).request(rm).execute();
+        }
         return rm.responseReadData;
     }
 
@@ -21,7 +21,9 @@
  */
 package de.ibapl.onewire4j.container;
 
+import de.ibapl.onewire4j.OneWireAdapter;
 import de.ibapl.onewire4j.utils.CRC8;
+import java.io.IOException;
 
 /**
  *
@@ -43,7 +45,21 @@ public interface OneWireContainer {
     }
 
     public static byte[] arrayOfAddress(final long address) {
-        final byte[] result = new byte[ADDRESS_SIZE];
+        return arrayOfAddress(address, new byte[ADDRESS_SIZE]);
+    }
+
+    /**
+     * Writes the address into an existing array, the least significant byte
+     * first.
+     *
+     * @param address the address to write.
+     * @param result the array of {@linkplain #ADDRESS_SIZE} bytes to write to.
+     * @return result for method chaining.
+     */
+    public static byte[] arrayOfAddress(final long address, final byte[] result) {
+        if (result.length != ADDRESS_SIZE) {
+            throw new IllegalArgumentException("Address size mismatch");
+        }
         result[0] = (byte) (address & 0xFF);
         result[1] = (byte) ((address >> 8) & 0xFF);
         result[2] = (byte) ((address >> 16) & 0xFF);
@@ -73,4 +89,25 @@ public interface OneWireContainer {
     long getAddress();
 
     String getAddressAsString();
+
+    /**
+     * Selects this device with a reset and Match ROM.
+     *
+     * @param adapter the adapter to use.
+     * @throws IOException if an error happens.
+     */
+    default void selectDevice(OneWireAdapter adapter) throws IOException {
+        adapter.sendMatchRomRequest(getAddress());
+    }
+
+    /**
+     * Selects this device again within one operation, the device was selected
+     * with {@linkplain #selectDevice(OneWireAdapter)} before.
+     *
+     * @param adapter the adapter to use.
+     * @throws IOException if an error happens.
+     */
+    default void reselectDevice(OneWireAdapter adapter) throws IOException {
+        selectDevice(adapter);
+    }
 }
@@ -23,6 +23,13 @@ package de.ibapl.onewire4j.container;
 
 import de.ibapl.onewire4j.OneWireAdapter;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.LongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  *
@@ -37,26 +44,66 @@ public abstract class OneWireDevice implements OneWireContainer {
     }
 
     /**
-     * Factory method to create OneWire device from their address.
+     * The factories by family code, loaded on first use.
+     */
+    private static class Families {
+
+        private final static Logger LOG = Logger.getLogger(OneWireDevice.class.getCanonicalName());
+
+        private final static LongFunction<? extends OneWireDevice>[] FACTORIES = createFactories();
+
+        private static LongFunction<? extends OneWireDevice>[] createFactories() {
+            final LongFunction<? extends OneWireDevice>[] result = newFactories();
+            Arrays.fill(result, (LongFunction<GenericOneWireDevice>) GenericOneWireDevice::new);
+            register(result, OneWireDevice01.class, OneWireDevice01::new);
+            register(result, OneWireDevice10.class, OneWireDevice10::new);
+            register(result, OneWireDevice1f.class, OneWireDevice1f::new);
+            register(result, OneWireDevice26.class, OneWireDevice26::new);
+            register(result, OneWireDevice28.class, OneWireDevice28::new);
+            register(result, OneWireDevice2d.class, OneWireDevice2d::new);
+            // a bad provider must not break the lookup of all other families
+            final Iterator<OneWireDeviceFactory> providers = ServiceLoader.load(OneWireDeviceFactory.class).iterator();
+            while (true) {
+                try {
+                    if (!providers.hasNext()) {
+                        break;
+                    }
+                    final OneWireDeviceFactory factory = providers.next();
+                    register(result, factory.getDeviceClass(), factory::createDevice);
+                } catch (ServiceConfigurationError | RuntimeException e) {
+                    LOG.log(Level.WARNING, "Skip OneWireDeviceFactory", e);
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static LongFunction<? extends OneWireDevice>[] newFactories() {
+            return (LongFunction<? extends OneWireDevice>[]) new LongFunction<?>[256];
+        }
+
+        private static void register(LongFunction<? extends OneWireDevice>[] factories,
+                Class<? extends OneWireDevice> deviceClass, LongFunction<? extends OneWireDevice> factory) {
+            final DeviceInfo deviceInfo = deviceClass.getAnnotation(DeviceInfo.class);
+            if (deviceInfo == null || deviceInfo.familyCode() < 0 || deviceInfo.familyCode() > 0xff) {
+                throw new IllegalArgumentException("No family code in @DeviceInfo of: " + deviceClass.getName());
+            }
+            factories[deviceInfo.familyCode()] = factory;
+        }
+    }
+
+    /**
+     * Factory method to create OneWire device from their address. The device
+     * class is looked up by the family code, a family without a device class
+     * gets a {@linkplain GenericOneWireDevice}. Additional families are loaded
+     * as {@linkplain OneWireDeviceFactory} with the
+     * {@linkplain ServiceLoader}.
      *
      * @param address the address used to create the device.
      * @return
      */
     public static OneWireDevice fromAdress(long address) {
-        return switch ((int) address & 0xff) {
-            case 0x01 ->
-                new OneWireDevice01(address);
-            case 0x10 ->
-                new OneWireDevice10(address);
-            case 0x26 ->
-                new OneWireDevice26(address);
-            case 0x28 ->
-                new OneWireDevice28(address);
-            case 0x2d ->
-                new OneWireDevice2d(address);
-            default ->
-                throw new RuntimeException("Can't handle One wire family: " + Integer.toHexString((int) address & 0xff));
-        };
+        return Families.FACTORIES[(int) address & 0xff].apply(address);
     }
 
     //TODO get a readTimeslot???? parasite power
@@ -25,7 +25,7 @@ package de.ibapl.onewire4j.container;
  *
  * @author Arne Plöse
  */
-@DeviceInfo(oneWireName = "DS2401,DS1420,DS2411", iButtonName = "DS1990A")
+@DeviceInfo(familyCode = 0x01, oneWireName = "DS2401,DS1420,DS2411", iButtonName = "DS1990A")
 public class OneWireDevice01 extends OneWireDevice {
 
     public OneWireDevice01(long address) {
@@ -25,7 +25,7 @@ package de.ibapl.onewire4j.container;
  *
  * @author Arne Plöse
  */
-@DeviceInfo(oneWireName = "DS18S20", iButtonName = "DS1920")
+@DeviceInfo(familyCode = 0x10, oneWireName = "DS18S20", iButtonName = "DS1920")
 public class OneWireDevice10 extends OneWireDevice implements AlarmTemperatureContainer {
 
     public OneWireDevice10(long address) {
@@ -0,0 +1,104 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.container;
+
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+
+/**
+ * The DS2409 MicroLAN coupler, it connects the main or the auxiliary branch to
+ * the bus.
+ *
+ * @author Arne Plöse
+ */
+@DeviceInfo(familyCode = 0x1f, oneWireName = "DS2409", iButtonName = "")
+public class OneWireDevice1f extends OneWireDevice {
+
+    @OneWireDataCommand
+    public final static byte ALL_LINES_OFF_CMD = (byte) 0x66;
+
+    @OneWireDataCommand
+    public final static byte SMART_ON_MAIN_CMD = (byte) 0xcc;
+
+    @OneWireDataCommand
+    public final static byte SMART_ON_AUX_CMD = (byte) 0x33;
+
+    @OneWireDataCommand
+    public final static byte DIRECT_ON_MAIN_CMD = (byte) 0xa5;
+
+    public enum Branch {
+        MAIN(SMART_ON_MAIN_CMD),
+        AUX(SMART_ON_AUX_CMD);
+
+        public final byte smartOnCommand;
+
+        private Branch(byte smartOnCommand) {
+            this.smartOnCommand = smartOnCommand;
+        }
+    }
+
+    public OneWireDevice1f(long address) {
+        super(address);
+    }
+
+    /**
+     * Disconnects both branches.
+     *
+     * @param adapter
+     * @throws IOException if the coupler does not confirm the command.
+     */
+    public void allLinesOff(OneWireAdapter adapter) throws IOException {
+        sendCommand(adapter, new DataRequestWithDeviceCommand(ALL_LINES_OFF_CMD, 0, 1), 0);
+    }
+
+    /**
+     * Connects the branch after a reset on it, so the devices on the branch are
+     * ready for the next ROM command.
+     *
+     * @param adapter
+     * @param branch the branch to connect.
+     * @throws IOException if the coupler does not confirm the command.
+     */
+    public void smartOn(OneWireAdapter adapter, Branch branch) throws IOException {
+        // reset stimulus, presence detect and confirmation
+        sendCommand(adapter, new DataRequestWithDeviceCommand(branch.smartOnCommand, 0, 3), 2);
+    }
+
+    /**
+     * Connects the main branch without a reset on it.
+     *
+     * @param adapter
+     * @throws IOException if the coupler does not confirm the command.
+     */
+    public void directOnMain(OneWireAdapter adapter) throws IOException {
+        sendCommand(adapter, new DataRequestWithDeviceCommand(DIRECT_ON_MAIN_CMD, 0, 1), 0);
+    }
+
+    private void sendCommand(OneWireAdapter adapter, DataRequestWithDeviceCommand request, int confirmationIndex) throws IOException {
+        adapter.transaction().matchRom(getAddress()).request(request).execute();
+        if (request.responseReadData[confirmationIndex] != request.command) {
+            throw new IOException("Command not confirmed by: " + getAddressAsString() + " request: " + request);
+        }
+    }
+
+}
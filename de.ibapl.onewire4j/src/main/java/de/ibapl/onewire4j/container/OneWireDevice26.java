@@ -31,7 +31,7 @@ import java.io.IOException;
  *
  * @author Arne Plöse
  */
-@DeviceInfo(oneWireName = "DS2438", iButtonName = "")
+@DeviceInfo(familyCode = 0x26, oneWireName = "DS2438", iButtonName = "")
 public class OneWireDevice26 extends OneWireDevice {
 
     public static class ReadScratchpadRequest extends DataRequestWithDeviceCommand {
@@ -244,19 +244,20 @@ public class OneWireDevice26 extends OneWireDevice {
     }
 
     public void readScratchpad(OneWireAdapter adapter, ReadScratchpadRequest request) throws IOException {
-        adapter.sendMatchRomRequest(getAddress());
-        adapter.sendCommand(request.resetState());
+        adapter.transaction().matchRom(getAddress()).request(request).execute();
         if (CRC8.crc8(request.responseReadData) != 0) {
             throw new IOException("CRC mismatch for: " + getAddressAsString() + " request: " + request);
         }
     }
 
     private ReadScratchpadRequest getScratchpadPageX(OneWireAdapter adapter, byte page) throws IOException {
-        adapter.sendMatchRomRequest(getAddress());
-        adapter.sendCommand(new DataRequestWithDeviceCommand(RECALL_MEMORY_CMD, new byte[]{page}, new byte[0]));
-        adapter.sendMatchRomRequest(getAddress());
         final ReadScratchpadRequest request = new ReadScratchpadRequest(page);
-        adapter.sendCommand(request);
+        adapter.transaction()
+                .matchRom(getAddress())
+                .request(new DataRequestWithDeviceCommand(RECALL_MEMORY_CMD, new byte[]{page}, new byte[0]))
+                .matchRom(getAddress())
+                .request(request)
+                .execute();
         if (CRC8.crc8(request.responseReadData) != 0) {
             throw new IOException("CRC mismatch for: " + getAddressAsString() + " @page " + page + " request: " + request);
         }
@@ -21,21 +21,140 @@
  */
 package de.ibapl.onewire4j.container;
 
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+
 /**
  *
  * @author Arne Plöse
  */
-@DeviceInfo(oneWireName = "DS18B20,DS1820B,DS18B20X", iButtonName = "")
+@DeviceInfo(familyCode = 0x28, oneWireName = "DS18B20,DS1820B,DS18B20X", iButtonName = "")
 public class OneWireDevice28 extends OneWireDevice implements AlarmTemperatureContainer {
 
+    /**
+     * The resolution of the temperature, set in the configuration register at
+     * byte 4 of the scratchpad.
+     */
+    public enum Resolution {
+        BITS_9((byte) 0x1f, 94, ~0x07),
+        BITS_10((byte) 0x3f, 188, ~0x03),
+        BITS_11((byte) 0x5f, 375, ~0x01),
+        BITS_12((byte) 0x7f, 750, ~0x00);
+
+        public final byte configurationRegister;
+        public final long conversionTimeMillis;
+        /**
+         * The undefined bits of the temperature are cleared with this mask.
+         */
+        final int temperatureMask;
+
+        private Resolution(byte configurationRegister, long conversionTimeMillis, int temperatureMask) {
+            this.configurationRegister = configurationRegister;
+            this.conversionTimeMillis = conversionTimeMillis;
+            this.temperatureMask = temperatureMask;
+        }
+
+        private final static Resolution[] VALUES = values();
+
+        public static Resolution of(byte configurationRegister) {
+            // values() clones the array on every call
+            return VALUES[(configurationRegister >> 5) & 0x03];
+        }
+    }
+
+    /**
+     * The last known resolution, until the scratchpad is read assume the
+     * longest conversion time.
+     */
+    private Resolution resolution = Resolution.BITS_12;
+
     public OneWireDevice28(long address) {
         super(address);
     }
 
+    /**
+     * Returns the last known resolution. This is updated with every
+     * scratchpad read with a valid CRC, see
+     * {@linkplain #scratchpadRead(ReadScratchpadRequest)}.
+     *
+     * @return the last known resolution.
+     */
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public Resolution getResolution(ReadScratchpadRequest request) {
+        return Resolution.of(request.responseReadData[4]);
+    }
+
+    /**
+     * Reads the scratchpad to get the resolution.
+     *
+     * @param adapter
+     * @return the resolution.
+     * @throws IOException
+     */
+    public Resolution readResolution(OneWireAdapter adapter) throws IOException {
+        readScratchpad(adapter, new ReadScratchpadRequest());
+        return resolution;
+    }
+
+    /**
+     * Sets the resolution and keeps the alarm limits. The resolution is only
+     * written to the scratchpad, use
+     * {@linkplain #copyScratchpad(OneWireAdapter, boolean)} to keep it after a
+     * power loss.
+     *
+     * @param adapter
+     * @param resolution the new resolution.
+     * @throws IOException
+     */
+    public void setResolution(OneWireAdapter adapter, Resolution resolution) throws IOException {
+        final ReadScratchpadRequest request = new ReadScratchpadRequest();
+        readScratchpad(adapter, request);
+        writeScratchpad(adapter, request.responseReadData[2], request.responseReadData[3], resolution);
+    }
+
+    /**
+     * The DS18B20 needs all 3 bytes TH, TL and the configuration register, so
+     * the last known resolution is written too.
+     */
+    @Override
+    public void writeScratchpad(OneWireAdapter adapter, double tL, double tH) throws IOException {
+        writeScratchpad(adapter, (byte) tH, (byte) tL, resolution);
+    }
+
+    /**
+     * The last known resolution is written with the alarm limits.
+     */
+    @Override
+    public DataRequestWithDeviceCommand createWriteScratchpadRequest(double tL, double tH) {
+        return new DataRequestWithDeviceCommand(WRITE_SCRATCHPAD_CMD, new byte[]{(byte) tH, (byte) tL, resolution.configurationRegister});
+    }
+
+    private void writeScratchpad(OneWireAdapter adapter, byte tH, byte tL, Resolution resolution) throws IOException {
+        adapter.transaction()
+                .matchRom(getAddress())
+                .request(new DataRequestWithDeviceCommand(WRITE_SCRATCHPAD_CMD, new byte[]{tH, tL, resolution.configurationRegister}))
+                .execute();
+        this.resolution = resolution;
+    }
+
+    @Override
+    public void scratchpadRead(ReadScratchpadRequest request) {
+        resolution = getResolution(request);
+    }
+
+    @Override
+    public long getConversionTimeMillis() {
+        return resolution.conversionTimeMillis;
+    }
+
     @Override
     public double getTemperature(ReadScratchpadRequest request) {
         final int intTemperature = (request.responseReadData[1] << 8) | (request.responseReadData[0] & 0xFF); // this converts 2 bytes into int , request.response[1] carries the sign
-        return intTemperature / 16.0; // converts integer to a double
+        return (intTemperature & getResolution(request).temperatureMask) / 16.0; // converts integer to a double
     }
 
     @Override
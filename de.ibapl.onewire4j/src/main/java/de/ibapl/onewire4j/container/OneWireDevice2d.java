@@ -25,8 +25,8 @@ package de.ibapl.onewire4j.container;
  *
  * @author Arne Plöse
  */
-@DeviceInfo(oneWireName = "DS2431", iButtonName = "DS1972")
-public class OneWireDevice2d extends OneWireDevice implements MemoryBankContainer {
+@DeviceInfo(familyCode = 0x2d, oneWireName = "DS2431", iButtonName = "DS1972")
+public class OneWireDevice2d extends OneWireDevice implements MemoryBankContainer, OverdriveContainer, ResumeContainer {
 
     public final static int PAGES = 4;
     public final static int PAGE_SIZE_IN_BYTE = 32;
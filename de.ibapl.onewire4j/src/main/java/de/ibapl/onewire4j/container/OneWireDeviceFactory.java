@@ -0,0 +1,49 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.container;
+
+/**
+ * A service to add a device class for a family to
+ * {@linkplain OneWireDevice#fromAdress(long)}. The family code is taken from
+ * the {@linkplain DeviceInfo} annotation of the device class.
+ *
+ * @author Arne Plöse
+ */
+public interface OneWireDeviceFactory {
+
+    /**
+     * Returns the device class, annotated with {@linkplain DeviceInfo} and
+     * the family code.
+     *
+     * @return the device class.
+     */
+    Class<? extends OneWireDevice> getDeviceClass();
+
+    /**
+     * Creates the device.
+     *
+     * @param address the address of the device.
+     * @return the new device.
+     */
+    OneWireDevice createDevice(long address);
+
+}
@@ -21,13 +21,20 @@
  */
 package de.ibapl.onewire4j.container;
 
+import de.ibapl.onewire4j.DS2480BAdapter;
+import de.ibapl.onewire4j.LockingOneWireAdapter;
 import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.OneWireTransaction;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
-import de.ibapl.onewire4j.request.data.ReadBytesRequest;
 import de.ibapl.onewire4j.utils.CRC8;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -43,6 +50,74 @@ public interface TemperatureContainer extends OneWireContainer {
 
     }
 
+    /**
+     * The result of {@linkplain #readAll(OneWireAdapter, Collection, boolean)}.
+     * The temperature of a sensor with an invalid CRC is
+     * {@linkplain Double#NaN}.
+     */
+    public class Readings {
+
+        /**
+         * The time the conversion was started.
+         */
+        public Instant timestamp;
+        public final long[] addresses;
+        public final double[] temperatures;
+        public final boolean[] crcValid;
+        public final boolean[] powerOnResetValue;
+        private final TemperatureContainer[] containers;
+        private final ReadScratchpadRequest[] requests;
+
+        /**
+         * Creates the readings for the containers, to be filled by
+         * {@linkplain #readScratchpads(OneWireAdapter, Readings, Instant)}.
+         *
+         * @param containers the containers to read.
+         */
+        public Readings(Collection<? extends TemperatureContainer> containers) {
+            this.containers = containers.toArray(new TemperatureContainer[containers.size()]);
+            addresses = new long[this.containers.length];
+            temperatures = new double[this.containers.length];
+            crcValid = new boolean[this.containers.length];
+            powerOnResetValue = new boolean[this.containers.length];
+            requests = new ReadScratchpadRequest[Math.min(this.containers.length, READ_ALL_SENSORS_PER_FRAME)];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new ReadScratchpadRequest();
+            }
+        }
+
+        public int size() {
+            return addresses.length;
+        }
+
+    }
+
+    /**
+     * The bytes to send for one sensor in
+     * {@linkplain #readAll(OneWireAdapter, Collection, boolean)}: reset, mode
+     * switches, Match ROM with all address bytes escaped and Read Scratchpad
+     * with 9 read time slots.
+     */
+    final static int READ_ALL_BYTES_PER_SENSOR = 30;
+
+    final static int READ_ALL_SENSORS_PER_FRAME = DS2480BAdapter.DEFAULT_BUFFER_SIZE / READ_ALL_BYTES_PER_SENSOR;
+
+    /**
+     * The maximum time of a temperature conversion.
+     */
+    public final static long CONVERSION_TIME_MILLIS = 750;
+
+    /**
+     * The time to copy the scratchpad to the EEPROM.
+     */
+    public final static long COPY_SCRATCHPAD_TIME_MILLIS = 10;
+
+    /**
+     * The delay between two read time slots while waiting for the end of a
+     * conversion.
+     */
+    public final static long POLL_INTERVAL_MILLIS = 10;
+
     @OneWireDataCommand
     public final static byte COPY_SCRATCHPAD_CMD = (byte) 0x48;
 
@@ -66,33 +141,293 @@ public interface TemperatureContainer extends OneWireContainer {
      */
     public static Instant sendDoConvertRequestToAll(OneWireAdapter adapter, boolean parasitePowerNeeded)
             throws IOException {
+        return sendDoConvertRequestToAll(adapter, parasitePowerNeeded, CONVERSION_TIME_MILLIS);
+    }
+
+    /**
+     * Sends convert to all devices and waits. With parasite power the strong
+     * pullup is held for conversionTimeMillis, otherwise the end of the
+     * conversion is polled, at most for conversionTimeMillis.
+     *
+     * @see #getConversionTimeMillis(Collection)
+     *
+     * @param adapter
+     * @param parasitePowerNeeded
+     * @param conversionTimeMillis the longest conversion time of the devices.
+     * @return the start time of the conversion.
+     * @throws IOException
+     */
+    public static Instant sendDoConvertRequestToAll(OneWireAdapter adapter, boolean parasitePowerNeeded,
+            long conversionTimeMillis) throws IOException {
         adapter.sendSkipRomRequest();
         final Instant ts = Instant.now();
+        sendAndWait(adapter, CONVERT_TEMPERATURE_CMD, parasitePowerNeeded, conversionTimeMillis);
+        return ts;
+    }
+
+    /**
+     * Sends convert to all devices and returns without waiting. The returned
+     * future completes with the start time of the conversion when the
+     * conversion is done. With parasite power the strong pullup is terminated
+     * by the scheduler, until then the bus is reserved. Otherwise the end of
+     * the conversion is polled, as long as nobody else used the bus in
+     * between.
+     *
+     * @param adapter
+     * @param parasitePowerNeeded
+     * @param scheduler the scheduler to wait on.
+     * @return the future to wait for.
+     * @throws IOException
+     */
+    public static CompletableFuture<Instant> sendDoConvertRequestToAllAsync(LockingOneWireAdapter adapter,
+            boolean parasitePowerNeeded, ScheduledExecutorService scheduler) throws IOException {
+        return adapter.withBus(a -> {
+            a.sendSkipRomRequest();
+            return sendAndWaitAsync(adapter, CONVERT_TEMPERATURE_CMD, parasitePowerNeeded, CONVERSION_TIME_MILLIS, scheduler);
+        });
+    }
+
+    /**
+     * Returns the longest conversion time of the containers.
+     *
+     * @param containers
+     * @return the longest conversion time in ms.
+     */
+    public static long getConversionTimeMillis(Collection<? extends TemperatureContainer> containers) {
+        long result = 0;
+        for (TemperatureContainer container : containers) {
+            result = Math.max(result, container.getConversionTimeMillis());
+        }
+        return result;
+    }
 
+    /**
+     * Sends the command, with strong pullup if parasitePowerNeeded and waits
+     * blocking. With parasite power the strong pullup is held for waitMillis.
+     * Otherwise read time slots are polled until the device sends a 1, at
+     * most for waitMillis. The device must be selected by the caller.
+     */
+    private static void sendAndWait(OneWireAdapter adapter, byte command, boolean parasitePowerNeeded,
+            long waitMillis) throws IOException {
         if (parasitePowerNeeded) {
-            adapter.sendByteWithPower(CONVERT_TEMPERATURE_CMD, StrongPullupDuration.SPUD_POSITIVE_INFINITY,
+            adapter.sendByteWithPower(command, StrongPullupDuration.SPUD_POSITIVE_INFINITY,
                     adapter.getSpeedFromBaudrate());
             try {
-                Thread.sleep(750);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+                sleep(waitMillis);
+            } finally {
+                adapter.sendTerminatePulse();
             }
-            adapter.sendTerminatePulse();
         } else {
-            adapter.sendCommand(new DataRequestWithDeviceCommand(CONVERT_TEMPERATURE_CMD, 0, 0));
-            final ReadBytesRequest r = new ReadBytesRequest(1);
-            adapter.sendCommand(r);
-            while (r.responseReadData[0] != (byte) 0xff) {
-                r.resetState();
+            adapter.sendDeviceCommand(command);
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            do {
+                sleep(Math.min(POLL_INTERVAL_MILLIS, waitMillis));
+            } while (adapter.sendReadByteRequest() != (byte) 0xff && System.nanoTime() - deadline < 0);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sends the command, with strong pullup if parasitePowerNeeded and waits on
+     * the scheduler. The device must be selected and the bus held by the
+     * caller.
+     */
+    private static CompletableFuture<Instant> sendAndWaitAsync(LockingOneWireAdapter adapter, byte command,
+            boolean parasitePowerNeeded, long waitMillis, ScheduledExecutorService scheduler) throws IOException {
+        final Instant ts;
+        if (parasitePowerNeeded) {
+            adapter.sendByteWithPower(command, StrongPullupDuration.SPUD_POSITIVE_INFINITY,
+                    adapter.getSpeedFromBaudrate());
+            ts = Instant.now();
+        } else {
+            adapter.sendDeviceCommand(command);
+            ts = Instant.now();
+        }
+        return waitAsync(adapter, ts, parasitePowerNeeded, adapter.getBusOperations(), waitMillis, scheduler);
+    }
+
+    /**
+     * Waits on the scheduler without blocking the caller. With parasite power
+     * the bus is reserved and the strong pullup is terminated after
+     * waitMillis, nobody else can use the bus until then. Otherwise read time
+     * slots are polled every {@linkplain #POLL_INTERVAL_MILLIS} until the
+     * device sends a 1, at most for waitMillis, each poll holds the bus. A
+     * read time slot tells the end only directly after the command or the
+     * last poll. If someone else used the bus in between, the future
+     * completes without polling, waitMillis is the maximum time anyway.
+     *
+     * @param adapter the adapter, held by the caller.
+     * @param ts the value to complete the future with.
+     * @param parasitePowerNeeded
+     * @param busOperations the bus operations when the command was sent.
+     * @param waitMillis the maximum time to wait.
+     * @param scheduler the scheduler to wait on.
+     * @return the future to wait for.
+     */
+    private static CompletableFuture<Instant> waitAsync(LockingOneWireAdapter adapter, Instant ts,
+            boolean parasitePowerNeeded, long busOperations, long waitMillis, ScheduledExecutorService scheduler)
+            throws IOException {
+        final CompletableFuture<Instant> result = new CompletableFuture<>();
+        if (parasitePowerNeeded) {
+            adapter.reserveBus();
+            try {
+                scheduler.schedule(() -> {
+                    try {
+                        adapter.releaseBus(OneWireAdapter::sendTerminatePulse);
+                        result.complete(ts);
+                    } catch (IOException | RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }, waitMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                // not scheduled, do not leave the strong pullup on
+                adapter.releaseBus(OneWireAdapter::sendTerminatePulse);
+                throw e;
+            }
+        } else {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            final long[] lastBusOperations = {busOperations};
+            final ScheduledFuture<?> poll = scheduler.scheduleWithFixedDelay(() -> {
+                if (result.isDone()) {
+                    return;
+                }
                 try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    //no-op
+                    adapter.withBus(a -> {
+                        final long current = adapter.getBusOperations();
+                        if (current != lastBusOperations[0] + 1) {
+                            result.complete(ts);
+                            return null;
+                        }
+                        lastBusOperations[0] = current;
+                        if (a.sendReadByteRequest() == (byte) 0xff || System.nanoTime() - deadline >= 0) {
+                            result.complete(ts);
+                        }
+                        return null;
+                    });
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
-                adapter.sendCommand(r);
+            }, Math.min(POLL_INTERVAL_MILLIS, waitMillis), POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            result.whenComplete((t, e) -> poll.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * Starts the conversion on all devices and then reads the scratchpads of
+     * the containers. As many scratchpad reads as fit into the buffer of the
+     * adapter are sent in one frame. Every scratchpad with a valid CRC is
+     * passed to {@linkplain #scratchpadRead(ReadScratchpadRequest)}, so the
+     * next call waits the conversion time of the resolution just read.
+     *
+     * @param adapter
+     * @param containers the containers to read.
+     * @param parasitePowerNeeded
+     * @return the temperatures in the order of containers.
+     * @throws IOException
+     */
+    public static Readings readAll(OneWireAdapter adapter, Collection<? extends TemperatureContainer> containers,
+            boolean parasitePowerNeeded) throws IOException {
+        return readScratchpads(adapter, containers, sendDoConvertRequestToAll(adapter, parasitePowerNeeded,
+                getConversionTimeMillis(containers)));
+    }
+
+    /**
+     * Starts the conversion on all devices and then reads the scratchpads of
+     * the containers of readings again. The requests of readings are reused,
+     * so only the timestamp is allocated.
+     *
+     * @see #readAll(OneWireAdapter, Collection, boolean)
+     *
+     * @param adapter
+     * @param readings the readings to fill.
+     * @param parasitePowerNeeded
+     * @throws IOException
+     */
+    public static void readAll(OneWireAdapter adapter, Readings readings, boolean parasitePowerNeeded)
+            throws IOException {
+        long conversionTimeMillis = 0;
+        for (TemperatureContainer container : readings.containers) {
+            conversionTimeMillis = Math.max(conversionTimeMillis, container.getConversionTimeMillis());
+        }
+        readScratchpads(adapter, readings, sendDoConvertRequestToAll(adapter, parasitePowerNeeded, conversionTimeMillis));
+    }
+
+    /**
+     * Reads the scratchpads of the containers without starting a conversion.
+     * As many scratchpad reads as fit into the buffer of the adapter are sent
+     * in one frame.
+     *
+     * @param adapter
+     * @param containers the containers to read.
+     * @param timestamp the start time of the last conversion.
+     * @return the temperatures in the order of containers.
+     * @throws IOException
+     */
+    public static Readings readScratchpads(OneWireAdapter adapter, Collection<? extends TemperatureContainer> containers,
+            Instant timestamp) throws IOException {
+        final Readings readings = new Readings(containers);
+        readScratchpads(adapter, readings, timestamp);
+        return readings;
+    }
+
+    /**
+     * Reads the scratchpads of the containers of readings again without
+     * starting a conversion. The requests of readings are reused, so polling
+     * with the same readings allocates nothing.
+     *
+     * @param adapter
+     * @param readings the readings to fill.
+     * @param timestamp the start time of the last conversion.
+     * @throws IOException
+     */
+    public static void readScratchpads(OneWireAdapter adapter, Readings readings, Instant timestamp)
+            throws IOException {
+        readings.timestamp = timestamp;
+        final OneWireTransaction transaction = adapter.transaction();
+        int offset = 0;
+        int frameIndex = 0;
+        for (int i = 0; i < readings.containers.length; i++) {
+            transaction.matchRom(readings.containers[i].getAddress()).request(readings.requests[frameIndex]);
+            frameIndex++;
+            if (frameIndex == readings.requests.length) {
+                readFrame(transaction, readings, offset, frameIndex);
+                offset += frameIndex;
+                frameIndex = 0;
             }
         }
-        return ts;
+        if (frameIndex > 0) {
+            readFrame(transaction, readings, offset, frameIndex);
+        }
+    }
+
+    private static void readFrame(OneWireTransaction transaction, Readings readings, int offset, int count)
+            throws IOException {
+        transaction.send();
+        for (int i = 0; i < count; i++) {
+            final TemperatureContainer container = readings.containers[offset + i];
+            final ReadScratchpadRequest request = readings.requests[i];
+            readings.addresses[offset + i] = container.getAddress();
+            if (transaction.isMatched(i) && CRC8.crc8(request.responseReadData) == 0) {
+                readings.crcValid[offset + i] = true;
+                container.scratchpadRead(request);
+                readings.temperatures[offset + i] = container.getTemperature(request);
+                readings.powerOnResetValue[offset + i] = container.isTemperaturePowerOnResetValue(request);
+            } else {
+                readings.crcValid[offset + i] = false;
+                readings.temperatures[offset + i] = Double.NaN;
+                readings.powerOnResetValue[offset + i] = false;
+            }
+        }
+        transaction.clear();
     }
 
     /**
@@ -127,59 +462,52 @@ public interface TemperatureContainer extends OneWireContainer {
 
     default void sendDoConvertTRequest(OneWireAdapter adapter, boolean parasitePowerNeeded) throws IOException {
         adapter.sendMatchRomRequest(getAddress());
+        sendAndWait(adapter, CONVERT_TEMPERATURE_CMD, parasitePowerNeeded, getConversionTimeMillis());
+    }
 
-        if (parasitePowerNeeded) {
-            adapter.sendByteWithPower(CONVERT_TEMPERATURE_CMD, StrongPullupDuration.SPUD_POSITIVE_INFINITY,
-                    adapter.getSpeedFromBaudrate());
+    /**
+     * Sends convert to this device and returns without waiting.
+     *
+     * @see #sendDoConvertRequestToAllAsync(LockingOneWireAdapter, boolean, ScheduledExecutorService)
+     *
+     * @param adapter
+     * @param parasitePowerNeeded
+     * @param scheduler the scheduler to wait on.
+     * @return the future, completed with the start time of the conversion
+     * when the conversion is done.
+     * @throws IOException
+     */
+    default CompletableFuture<Instant> sendDoConvertTRequestAsync(LockingOneWireAdapter adapter, boolean parasitePowerNeeded,
+            ScheduledExecutorService scheduler) throws IOException {
+        return adapter.withBus(a -> {
+            a.sendMatchRomRequest(getAddress());
+            return sendAndWaitAsync(adapter, CONVERT_TEMPERATURE_CMD, parasitePowerNeeded, getConversionTimeMillis(), scheduler);
+        });
+    }
 
-            try {
-                Thread.sleep(750);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-            adapter.sendTerminatePulse();
-        } else {
-            adapter.sendCommand(new DataRequestWithDeviceCommand(CONVERT_TEMPERATURE_CMD, 0, 0));
-            final ReadBytesRequest r = new ReadBytesRequest(1);
-            adapter.sendCommand(r);
-            while (r.responseReadData[0] != (byte) 0xff) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    //no-op
-                }
-                r.resetState();
-                adapter.sendCommand(r);
-            }
-        }
+    /**
+     * Sends copy scratchpad to this device and returns without waiting.
+     *
+     * @see #sendDoConvertRequestToAllAsync(LockingOneWireAdapter, boolean, ScheduledExecutorService)
+     *
+     * @param adapter
+     * @param parasitePowerNeeded
+     * @param scheduler the scheduler to wait on.
+     * @return the future, completed with the start time of the copy when the
+     * copy is done.
+     * @throws IOException
+     */
+    default CompletableFuture<Instant> copyScratchpadAsync(LockingOneWireAdapter adapter, boolean parasitePowerNeeded,
+            ScheduledExecutorService scheduler) throws IOException {
+        return adapter.withBus(a -> {
+            a.sendMatchRomRequest(getAddress());
+            return sendAndWaitAsync(adapter, COPY_SCRATCHPAD_CMD, parasitePowerNeeded, COPY_SCRATCHPAD_TIME_MILLIS, scheduler);
+        });
     }
 
     default void copyScratchpad(OneWireAdapter adapter, boolean parasitePowerNeeded) throws IOException {
         adapter.sendMatchRomRequest(getAddress());
-        if (parasitePowerNeeded) {
-            adapter.sendByteWithPower(COPY_SCRATCHPAD_CMD, StrongPullupDuration.SPUD_POSITIVE_INFINITY,
-                    adapter.getSpeedFromBaudrate());
-
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-            adapter.sendTerminatePulse();
-        } else {
-            adapter.sendCommand(new DataRequestWithDeviceCommand(COPY_SCRATCHPAD_CMD, 0, 0));
-            final ReadBytesRequest r = new ReadBytesRequest(1);
-            adapter.sendCommand(r);
-            while (r.responseReadData[0] != (byte) 0xff) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    //no-op
-                }
-                r.resetState();
-                adapter.sendCommand(r);
-            }
-        }
+        sendAndWait(adapter, COPY_SCRATCHPAD_CMD, parasitePowerNeeded, COPY_SCRATCHPAD_TIME_MILLIS);
     }
 
     /**
@@ -190,15 +518,26 @@ public interface TemperatureContainer extends OneWireContainer {
      */
     default void recallE2(OneWireAdapter adapter) throws IOException {
         adapter.sendMatchRomRequest(getAddress());
-        adapter.sendCommand(new DataRequestWithDeviceCommand(RECALLEE_CMD, 0, 0));
+        adapter.sendDeviceCommand(RECALLEE_CMD);
     }
 
     default void readScratchpad(OneWireAdapter adapter, ReadScratchpadRequest request) throws IOException {
-        adapter.sendMatchRomRequest(getAddress());
-        adapter.sendCommand(request.resetState());
+        adapter.transaction().matchRom(getAddress()).request(request).execute();
         if (CRC8.crc8(request.responseReadData) != 0) {
             throw new IOException("CRC mismatch for: " + getAddressAsString() + " request: " + request);
         }
+        scratchpadRead(request);
+    }
+
+    /**
+     * Called with every scratchpad with a valid CRC, read with
+     * {@linkplain #readScratchpad(OneWireAdapter, ReadScratchpadRequest)} or
+     * {@linkplain #readAll(OneWireAdapter, Collection, boolean)}, to update
+     * what this container knows from the scratchpad.
+     *
+     * @param request the request with the scratchpad.
+     */
+    default void scratchpadRead(ReadScratchpadRequest request) {
     }
 
     default void writeScratchpad(OneWireAdapter adapter, double tL, double tH) throws IOException {
@@ -219,6 +558,15 @@ public interface TemperatureContainer extends OneWireContainer {
 
     boolean isTemperaturePowerOnResetValue(ReadScratchpadRequest request);
 
+    /**
+     * Returns the time a temperature conversion of this device takes.
+     *
+     * @return the conversion time in ms.
+     */
+    default long getConversionTimeMillis() {
+        return CONVERSION_TIME_MILLIS;
+    }
+
     double getTemperature(ReadScratchpadRequest request);
 
 }
@@ -24,6 +24,7 @@ package de.ibapl.onewire4j.request;
 import de.ibapl.onewire4j.Decoder;
 import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
 
 /**
  * A 1-wire command request with response.
@@ -103,4 +104,23 @@ public abstract class OneWireRequest<R> {
     }
 
     public abstract int responseSize(StrongPullupDuration spd);
+
+    /**
+     * Writes this request to the encoder by calling the encode method of its
+     * type. The dispatch is a virtual call and not a chain of instanceof
+     * checks.
+     *
+     * @param encoder the encoder to write to.
+     * @throws IOException if an error happens.
+     */
+    public abstract void encodeTo(Encoder encoder) throws IOException;
+
+    /**
+     * Reads the response of this request from the decoder by calling the
+     * decode method of its type.
+     *
+     * @param decoder the decoder to read from.
+     * @throws IOException if an error happens.
+     */
+    public abstract void decodeFrom(Decoder decoder) throws IOException;
 }
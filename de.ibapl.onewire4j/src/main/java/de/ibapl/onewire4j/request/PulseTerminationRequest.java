@@ -21,6 +21,8 @@
  */
 package de.ibapl.onewire4j.request;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.communication.CommunicationRequest;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 
@@ -35,4 +37,14 @@ public class PulseTerminationRequest extends CommunicationRequest<Byte> {
         return 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) {
+        encoder.encodePulseTerminationRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodePulseTerminationRequest(this);
+    }
+
 }
@@ -21,6 +21,8 @@
  */
 package de.ibapl.onewire4j.request.communication;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 
 /**
@@ -48,4 +50,14 @@ public class PulseRequest extends CommunicationRequest<PulseResponse> {
         }
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) {
+        encoder.encodePulseRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodePulseRequest(this);
+    }
+
 }
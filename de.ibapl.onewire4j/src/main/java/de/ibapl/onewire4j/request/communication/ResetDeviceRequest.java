@@ -21,6 +21,8 @@
  */
 package de.ibapl.onewire4j.request.communication;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 
 /**
@@ -42,4 +44,14 @@ public class ResetDeviceRequest extends CommunicationRequest<ResetDeviceResponse
         return 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) {
+        encoder.encodeResetDeviceRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodeResetDeviceRequest(this);
+    }
+
 }
@@ -21,6 +21,8 @@
  */
 package de.ibapl.onewire4j.request.communication;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.VoidResponse;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 
@@ -45,4 +47,14 @@ public class SearchAcceleratorCommand extends CommunicationRequest<VoidResponse>
         return 0;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) {
+        encoder.encodeSearchAcceleratorCommand(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodeSearchAcceleratorCommand(this);
+    }
+
 }
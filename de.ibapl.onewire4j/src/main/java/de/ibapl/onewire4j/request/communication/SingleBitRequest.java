@@ -21,7 +21,10 @@
  */
 package de.ibapl.onewire4j.request.communication;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
 
 /**
  *
@@ -48,4 +51,14 @@ public class SingleBitRequest extends CommunicationRequest<SingleBitResponse> {
         return 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) throws IOException {
+        encoder.encodeSingleBitRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodeSingleBitRequest(this);
+    }
+
 }
@@ -20,6 +20,9 @@
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
 package de.ibapl.onewire4j.request.configuration;
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
+import java.io.IOException;
 
 /**
  *
@@ -40,4 +43,14 @@ public class ConfigurationReadRequest<R> extends ConfigurationRequest<R> {
         return 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) throws IOException {
+        encoder.encodeConfigurationReadRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodeConfigurationReadRequest(this);
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.request.data;
+
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A device command like {@linkplain DataRequestWithDeviceCommand}, but the
+ * request data and the responses are {@linkplain ByteBuffer}s. The
+ * {@linkplain #response} and the {@linkplain #responseReadData} are views into
+ * the receive buffer of the adapter, nothing is copied. They are only valid
+ * until the next {@linkplain de.ibapl.onewire4j.OneWireAdapter#sendCommand(de.ibapl.onewire4j.request.OneWireRequest)}
+ * or {@linkplain de.ibapl.onewire4j.OneWireAdapter#sendCommands(de.ibapl.onewire4j.request.OneWireRequest...)}
+ * of the adapter. If the responses of a frame need more than one read,
+ * because a following request does not fit into the same read, the responses
+ * are copied.
+ *
+ * @author Arne Plöse
+ */
+public class ByteBufferDataRequest extends DataRequest<ByteBuffer> {
+
+    /**
+     *
+     * @param command the command is send first followed by the data
+     * @param requestData the data between position and limit is sent
+     * @param readTimeSlots the readTimeSlots in bytes
+     */
+    public ByteBufferDataRequest(byte command, ByteBuffer requestData, int readTimeSlots) {
+        super(readTimeSlots);
+        this.command = command;
+        this.requestData = requestData;
+    }
+
+    public final byte command;
+    public final ByteBuffer requestData;
+    public ByteBuffer responseReadData;
+
+    @Override
+    public int responseSize(StrongPullupDuration spd) {
+        return 1 + requestData.remaining() + readTimeSlots;
+    }
+
+    @Override
+    public void encodeTo(Encoder encoder) throws IOException {
+        encoder.encodeByteBufferDataRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) {
+        decoder.decodeByteBufferDataRequest(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.getClass().getSimpleName());
+        sb.append(String.format("(command=0x%02x", command));
+        sb.append(", requestState=").append(requestState);
+        sb.append(", requestData=").append(requestData);
+        sb.append(", readTimeSlots=").append(readTimeSlots);
+        sb.append(", response=").append(response);
+        sb.append(", responseReadData=").append(responseReadData);
+        sb.append(")");
+        return sb.toString();
+    }
+
+}
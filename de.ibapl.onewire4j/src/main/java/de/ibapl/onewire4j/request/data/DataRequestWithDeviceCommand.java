@@ -21,7 +21,10 @@
  */
 package de.ibapl.onewire4j.request.data;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
 
 /**
  *
@@ -57,6 +60,16 @@ public class DataRequestWithDeviceCommand extends RawDataRequest {
         return super.responseSize(spd) + 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) throws IOException {
+        encoder.encodeDataRequestWithDeviceCommand(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) throws IOException {
+        decoder.decodeDataRequestWithDeviceCommand(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -21,7 +21,10 @@
  */
 package de.ibapl.onewire4j.request.data;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
 
 /**
  *
@@ -58,4 +61,14 @@ public class RawDataRequest extends DataRequest<byte[]> {
         return response.length + readTimeSlots;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) throws IOException {
+        encoder.encodeRawDataRequest(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) throws IOException {
+        decoder.decodeRawDataRequest(this);
+    }
+
 }
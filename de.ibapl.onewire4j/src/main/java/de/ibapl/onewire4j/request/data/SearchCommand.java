@@ -21,7 +21,10 @@
  */
 package de.ibapl.onewire4j.request.data;
 
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
 import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import java.io.IOException;
 
 /**
  *
@@ -43,4 +46,14 @@ public class SearchCommand extends DataRequest<Boolean> {
         return 1;
     }
 
+    @Override
+    public void encodeTo(Encoder encoder) {
+        encoder.encodeSearchCommand(this);
+    }
+
+    @Override
+    public void decodeFrom(Decoder decoder) throws IOException {
+        decoder.decodeSearchCommand(this);
+    }
+
 }
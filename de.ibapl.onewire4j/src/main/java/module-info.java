@@ -33,4 +33,6 @@ module de.ibapl.onewire4j {
     exports de.ibapl.onewire4j.request.configuration;
     exports de.ibapl.onewire4j.request.data;
     exports de.ibapl.onewire4j.utils;
+
+    uses de.ibapl.onewire4j.container.OneWireDeviceFactory;
 }
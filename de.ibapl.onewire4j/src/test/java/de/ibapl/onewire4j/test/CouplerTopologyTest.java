@@ -0,0 +1,182 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.CouplerTopology;
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.container.OneWireDevice1f;
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CouplerTopologyTest {
+
+    /**
+     * A bus with couplers, a branch is only searched if its coupler is
+     * present and switched on.
+     */
+    private static class CouplerBus extends SimulatedBus {
+
+        final Map<Long, List<Long>> main = new HashMap<>();
+        final Map<Long, List<Long>> aux = new HashMap<>();
+        final Map<Long, OneWireDevice1f.Branch> switchedOn = new HashMap<>();
+        final List<String> couplerCommands = new ArrayList<>();
+
+        CouplerBus(long... root) {
+            super(root);
+        }
+
+        @Override
+        protected Collection<Long> present() {
+            final List<Long> result = new ArrayList<>(addresses);
+            for (int i = 0; i < result.size(); i++) {
+                final OneWireDevice1f.Branch branch = switchedOn.get(result.get(i));
+                if (branch == OneWireDevice1f.Branch.MAIN) {
+                    result.addAll(main.get(result.get(i)));
+                } else if (branch == OneWireDevice1f.Branch.AUX) {
+                    result.addAll(aux.get(result.get(i)));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        protected Object invokeOther(Method method, Object[] args) throws Throwable {
+            if (!"sendCommands".equals(method.getName())) {
+                return super.invokeOther(method, args);
+            }
+            long selected = 0;
+            for (OneWireRequest<?> request : (OneWireRequest<?>[]) args[0]) {
+                if (!(request instanceof DataRequestWithDeviceCommand r)) {
+                    continue;
+                }
+                if (r.command == 0x55) {
+                    selected = 0;
+                    for (int i = 7; i >= 0; i--) {
+                        selected = (selected << 8) | (r.requestData[i] & 0xff);
+                    }
+                    if (present().contains(selected)) {
+                        System.arraycopy(r.requestData, 0, r.response, 0, 8);
+                    } else {
+                        Arrays.fill(r.response, (byte) 0xff);
+                        selected = 0;
+                    }
+                    continue;
+                }
+                Arrays.fill(r.responseReadData, (byte) 0xff);
+                if (selected == 0) {
+                    continue;
+                }
+                couplerCommands.add(String.format("%02x", r.command & 0xff));
+                switch (r.command) {
+                    case OneWireDevice1f.ALL_LINES_OFF_CMD -> {
+                        switchedOn.remove(selected);
+                        r.responseReadData[0] = r.command;
+                    }
+                    case OneWireDevice1f.SMART_ON_MAIN_CMD -> {
+                        switchedOn.put(selected, OneWireDevice1f.Branch.MAIN);
+                        r.responseReadData[2] = r.command;
+                    }
+                    case OneWireDevice1f.SMART_ON_AUX_CMD -> {
+                        switchedOn.put(selected, OneWireDevice1f.Branch.AUX);
+                        r.responseReadData[2] = r.command;
+                    }
+                    default -> {
+                    }
+                }
+            }
+            return null;
+        }
+
+    }
+
+    private final static long R1 = 0x5a000000a8e1b328L;
+    private final static long C1 = 0x1100000005c3a21fL;
+    private final static long C2 = 0x2200000005c3a21fL;
+    private final static long M1 = 0x0e0000000b1ddc28L;
+    private final static long A1 = 0xc4000000a8e1b328L;
+    private final static long N1 = 0x6b0000016c2c022dL;
+
+    public CouplerTopologyTest() {
+    }
+
+    @Test
+    public void testDiscoverAndConnect() throws Exception {
+        System.out.println("discoverAndConnect");
+        final CouplerBus bus = new CouplerBus(R1, C1);
+        bus.main.put(C1, List.of(M1, C2));
+        bus.aux.put(C1, List.of(A1));
+        bus.main.put(C2, List.of(N1));
+        bus.aux.put(C2, List.of());
+        // left switched on from before
+        bus.switchedOn.put(C1, OneWireDevice1f.Branch.AUX);
+        final OneWireAdapter adapter = bus.adapter();
+
+        final CouplerTopology instance = new CouplerTopology();
+        instance.discover(adapter);
+        assertEquals(5, instance.getSegments().size());
+        assertSame(instance.getRoot(), instance.getSegmentOf(R1));
+        assertSame(instance.getRoot(), instance.getSegmentOf(C1));
+        assertEquals(List.of(M1, C2), instance.getSegmentOf(M1).getAddresses());
+        assertEquals(OneWireDevice1f.Branch.MAIN, instance.getSegmentOf(M1).getBranch());
+        assertEquals(C1, instance.getSegmentOf(M1).getCoupler().getAddress());
+        assertEquals(OneWireDevice1f.Branch.AUX, instance.getSegmentOf(A1).getBranch());
+        assertSame(instance.getSegmentOf(M1), instance.getSegmentOf(N1).getParent());
+        assertNull(instance.getSegmentOf(0x1234L));
+        assertSame(instance.getRoot(), instance.getConnected());
+        assertEquals(Map.of(), bus.switchedOn);
+
+        bus.couplerCommands.clear();
+        instance.connectSegmentOf(adapter, N1);
+        assertEquals(List.of("cc", "cc"), bus.couplerCommands);
+        assertEquals(true, bus.present().contains(N1));
+
+        bus.couplerCommands.clear();
+        instance.connectSegmentOf(adapter, M1);
+        instance.connectSegmentOf(adapter, M1);
+        assertEquals(List.of("66"), bus.couplerCommands);
+
+        bus.couplerCommands.clear();
+        instance.withSegmentOf(adapter, A1, (a) -> null);
+        assertEquals(List.of("66", "33"), bus.couplerCommands);
+        assertEquals(true, bus.present().contains(A1));
+
+        bus.couplerCommands.clear();
+        instance.connectSegmentOf(adapter, R1);
+        assertEquals(List.of("66"), bus.couplerCommands);
+    }
+
+}
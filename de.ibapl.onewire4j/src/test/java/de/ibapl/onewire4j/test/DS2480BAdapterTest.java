@@ -0,0 +1,400 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import com.sun.management.ThreadMXBean;
+import de.ibapl.onewire4j.DS2480BAdapter;
+import de.ibapl.onewire4j.Encoder;
+import de.ibapl.onewire4j.LockingOneWireAdapter;
+import de.ibapl.onewire4j.LockingOneWireAdapter.BusOperation;
+import de.ibapl.onewire4j.OWSearchIterator;
+import de.ibapl.onewire4j.OneWireTransaction;
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import de.ibapl.onewire4j.container.TemperatureContainer;
+import de.ibapl.onewire4j.container.TemperatureContainer.ReadScratchpadRequest;
+import de.ibapl.onewire4j.container.TemperatureContainer.Readings;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.communication.ResetResult;
+import de.ibapl.onewire4j.request.configuration.CommandType;
+import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
+import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import de.ibapl.onewire4j.request.data.RawDataRequest;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import de.ibapl.onewire4j.utils.CRC8;
+import de.ibapl.spsw.api.Speed;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+/**
+ * Runs the adapter against a {@linkplain SimulatedDS2480B}.
+ *
+ * @author Arne Plöse
+ */
+public class DS2480BAdapterTest {
+
+    private final static long ADDRESS = 0x5a000000a8e1b328L;
+
+    public DS2480BAdapterTest() {
+    }
+
+    /**
+     * Test of sendOverdriveMatchRomRequest method, of class DS2480BAdapter.
+     * The Overdrive Match ROM command is sent at regular speed, then the
+     * DS2480B is switched to overdrive and the address follows at overdrive
+     * speed.
+     */
+    @Test
+    public void testSendOverdriveMatchRomRequest() throws Exception {
+        System.out.println("sendOverdriveMatchRomRequest");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        instance.setOverdriveEnabled(true);
+        ds2480b.clearWritten();
+
+        assertTrue(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertTrue(ds2480b.isOverdrive(ADDRESS));
+        final byte[] expected = {
+            // reset at flex speed, data mode, Overdrive Match ROM
+            (byte) 0xc5, (byte) 0xe1, 0x69,
+            // command mode, search accelerator off at overdrive speed, data mode
+            (byte) 0xe3, (byte) 0xa9, (byte) 0xe1,
+            // the address at overdrive speed
+            0x28, (byte) 0xb3, (byte) 0xe1, (byte) 0xa8, 0x00, 0x00, 0x00, 0x5a};
+        assertArrayEquals(expected, Arrays.copyOf(ds2480b.getWritten(), expected.length));
+
+        // the device is at overdrive speed already
+        ds2480b.clearWritten();
+        assertTrue(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertArrayEquals(new byte[]{(byte) 0xe3, (byte) 0xc9}, Arrays.copyOf(ds2480b.getWritten(), 2));
+    }
+
+    /**
+     * Test of sendOverdriveMatchRomRequest method, of class DS2480BAdapter. A
+     * garbled address echo of the Overdrive Match ROM falls back to regular
+     * speed without an exception.
+     */
+    @Test
+    public void testSendOverdriveMatchRomRequestEchoMismatch() throws Exception {
+        System.out.println("sendOverdriveMatchRomRequestEchoMismatch");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        instance.setOverdriveEnabled(true);
+        ds2480b.noisyRoms = 1;
+
+        assertFalse(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertFalse(ds2480b.isOverdrive(ADDRESS));
+        // the device is selected at regular speed from now on
+        assertFalse(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertFalse(ds2480b.isOverdrive(ADDRESS));
+        // enabling overdrive again gives the device another chance
+        instance.setOverdriveEnabled(true);
+        assertTrue(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertTrue(ds2480b.isOverdrive(ADDRESS));
+    }
+
+    /**
+     * Test of sendOverdriveSkipRomRequest method, of class DS2480BAdapter. The
+     * reset, Overdrive Skip ROM and the switch of the DS2480B to overdrive go
+     * in one frame.
+     */
+    @Test
+    public void testSendOverdriveSkipRomRequest() throws Exception {
+        System.out.println("sendOverdriveSkipRomRequest");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        instance.setOverdriveEnabled(true);
+        ds2480b.clearWritten();
+        final long invocations = ds2480b.getInvocations();
+
+        assertTrue(instance.sendOverdriveSkipRomRequest());
+        assertTrue(ds2480b.isOverdrive(ADDRESS));
+        assertArrayEquals(new byte[]{
+            // reset at flex speed, data mode, Overdrive Skip ROM
+            (byte) 0xc5, (byte) 0xe1, 0x3c,
+            // command mode, search accelerator off at overdrive speed
+            (byte) 0xe3, (byte) 0xa9}, ds2480b.getWritten());
+        // readGarbage, one write and one read
+        assertEquals(3, ds2480b.getInvocations() - invocations);
+        // the device answers at overdrive speed
+        assertTrue(instance.sendOverdriveMatchRomRequest(ADDRESS));
+    }
+
+    /**
+     * Without a presence pulse of the reset, neither the overdrive select
+     * paths nor Resume ROM report the device as selected.
+     */
+    @Test
+    public void testNoPresence() throws Exception {
+        System.out.println("noPresence");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        instance.setOverdriveEnabled(true);
+        instance.sendMatchRomRequest(ADDRESS);
+
+        ds2480b.disconnected = true;
+        assertFalse(instance.sendResumeRequest(ADDRESS));
+        assertFalse(instance.sendOverdriveSkipRomRequest());
+        assertFalse(instance.sendOverdriveMatchRomRequest(ADDRESS));
+
+        // a missing device is not put on the list of the overdrive fallbacks
+        ds2480b.disconnected = false;
+        assertTrue(instance.sendOverdriveMatchRomRequest(ADDRESS));
+        assertTrue(instance.sendResumeRequest(ADDRESS));
+    }
+
+    /**
+     * Test of sendResumeRequest method, of class DS2480BAdapter. Only a Match
+     * ROM with a verified address echo selects the device for Resume ROM, in
+     * a transaction too.
+     */
+    @Test
+    public void testSendResumeRequest() throws Exception {
+        System.out.println("sendResumeRequest");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        assertFalse(instance.sendResumeRequest(ADDRESS));
+
+        instance.sendMatchRomRequest(ADDRESS);
+        assertTrue(instance.sendResumeRequest(ADDRESS));
+        assertTrue(instance.sendResumeRequest(ADDRESS));
+
+        ds2480b.noisyRoms = 1;
+        assertThrows(IllegalArgumentException.class, () -> instance.sendMatchRomRequest(ADDRESS));
+        assertFalse(instance.sendResumeRequest(ADDRESS));
+
+        final OneWireTransaction transaction = instance.transaction()
+                .matchRom(ADDRESS)
+                .request(new DataRequestWithDeviceCommand(TemperatureContainer.RECALLEE_CMD, 0, 0));
+        transaction.send();
+        assertTrue(transaction.isMatched(0));
+        assertTrue(instance.sendResumeRequest(ADDRESS));
+
+        ds2480b.noisyRoms = 1;
+        transaction.send();
+        assertFalse(transaction.isMatched(0));
+        assertFalse(instance.sendResumeRequest(ADDRESS));
+    }
+
+    /**
+     * Test of sendCommands method, of class DS2480BAdapter. A configuration
+     * read between data requests is sent behind them, so the frame has only
+     * one switch to data mode and one back. The responses are decoded as
+     * before.
+     */
+    @Test
+    public void testSendCommandsModeSwitches() throws Exception {
+        System.out.println("sendCommandsModeSwitches");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final byte[] scratchpad = {0x50, 0x05, 0x4b, 0x46, 0x7f, (byte) 0xff, 0x0c, 0x10, 0x1c};
+        ds2480b.setScratchpad(ADDRESS, scratchpad);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        final ConfigurationReadRequest<?> readRbr = ConfigurationReadRequest.of(CommandType.RBR);
+        final DataRequestWithDeviceCommand readScratchpad = new DataRequestWithDeviceCommand((byte) 0xbe, 0, 9);
+        final RawDataRequest readBytes = new RawDataRequest(0, 2);
+        ds2480b.clearWritten();
+
+        instance.sendCommands(ResetDeviceRequest.of(OneWireSpeed.FLEX), matchRomRequest(ADDRESS), readRbr,
+                readScratchpad, readBytes, ResetDeviceRequest.of(OneWireSpeed.FLEX));
+        assertArrayEquals(new byte[]{
+            // reset, data mode, Match ROM
+            (byte) 0xc5, (byte) 0xe1, 0x55, 0x28, (byte) 0xb3, (byte) 0xe1, (byte) 0xa8, 0x00, 0x00, 0x00, 0x5a,
+            // Read Scratchpad and the read bytes
+            (byte) 0xbe, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            // command mode, the RBR read moved here, reset
+            (byte) 0xe3, 0x0f, (byte) 0xc5}, ds2480b.getWritten());
+        assertEquals(SerialPortSpeed.SPS_9_6, readRbr.response);
+        assertArrayEquals(scratchpad, readScratchpad.responseReadData);
+
+        // the adapter is in data mode at the start of the frame
+        instance.sendCommand(readBytes.resetState());
+        ds2480b.clearWritten();
+        instance.sendCommands(readRbr.resetState(), readBytes.resetState());
+        assertArrayEquals(new byte[]{-1, -1, (byte) 0xe3, 0x0f}, ds2480b.getWritten());
+        assertEquals(SerialPortSpeed.SPS_9_6, readRbr.response);
+
+        // a data request without any byte needs no data mode
+        ds2480b.clearWritten();
+        instance.sendCommands(ResetDeviceRequest.of(OneWireSpeed.FLEX), new RawDataRequest(new byte[0]), readRbr.resetState());
+        assertArrayEquals(new byte[]{(byte) 0xc5, 0x0f}, ds2480b.getWritten());
+    }
+
+    /**
+     * Test of sendCommands method, of class DS2480BAdapter. Nothing is moved
+     * across a request in command mode.
+     */
+    @Test
+    public void testSendCommandsKeepsOrder() throws Exception {
+        System.out.println("sendCommandsKeepsOrder");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port());
+        final ConfigurationReadRequest<?> readRbr = ConfigurationReadRequest.of(CommandType.RBR);
+        ds2480b.clearWritten();
+
+        instance.sendCommands(matchRomRequest(ADDRESS), readRbr, ResetDeviceRequest.of(OneWireSpeed.FLEX),
+                new RawDataRequest(0, 1));
+        assertArrayEquals(new byte[]{
+            (byte) 0xe1, 0x55, 0x28, (byte) 0xb3, (byte) 0xe1, (byte) 0xa8, 0x00, 0x00, 0x00, 0x5a,
+            // the RBR read stays in front of the reset
+            (byte) 0xe3, 0x0f, (byte) 0xc5,
+            (byte) 0xe1, -1}, ds2480b.getWritten());
+        assertEquals(SerialPortSpeed.SPS_9_6, readRbr.response);
+    }
+
+    private static DataRequestWithDeviceCommand matchRomRequest(long address) {
+        final DataRequestWithDeviceCommand result = new DataRequestWithDeviceCommand(Encoder.MATCH_ROM_CMD, 8, 0);
+        OneWireContainer.arrayOfAddress(address, result.requestData);
+        return result;
+    }
+
+    /**
+     * Test of negotiateSerialPortSpeed method, of class DS2480BAdapter. The
+     * fastest speed the line carries is taken, the 1-Wire speed stays flex.
+     */
+    @Test
+    public void testNegotiateSerialPortSpeed() throws Exception {
+        System.out.println("negotiateSerialPortSpeed");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port(), SerialPortSpeed.SPS_115_2);
+        assertEquals(SerialPortSpeed.SPS_115_2, instance.getSerialPortSpeed());
+        assertEquals(OneWireSpeed.FLEX, instance.getSpeedFromBaudrate());
+        ds2480b.clearWritten();
+        assertEquals(ResetResult.PRESENCE, instance.sendReset().resetresult);
+        // reset at flex speed
+        assertArrayEquals(new byte[]{(byte) 0xc5}, Arrays.copyOf(ds2480b.getWritten(), 1));
+
+        ds2480b.maxSpeed = Speed._57600_BPS;
+        final DS2480BAdapter limited = new DS2480BAdapter(ds2480b.port(), SerialPortSpeed.SPS_115_2);
+        assertEquals(SerialPortSpeed.SPS_57_6, limited.getSerialPortSpeed());
+        assertEquals(OneWireSpeed.FLEX, limited.getSpeedFromBaudrate());
+        assertEquals(ResetResult.PRESENCE, limited.sendReset().resetresult);
+
+        limited.setSpeedFromBaudrate(OneWireSpeed.STANDARD);
+        ds2480b.clearWritten();
+        assertEquals(ResetResult.PRESENCE, limited.sendReset().resetresult);
+        // reset at standard speed
+        assertArrayEquals(new byte[]{(byte) 0xc1}, Arrays.copyOf(ds2480b.getWritten(), 1));
+        assertThrows(IllegalArgumentException.class, () -> limited.setSpeedFromBaudrate(OneWireSpeed.OVERDRIVE));
+    }
+
+    /**
+     * Test of negotiateSerialPortSpeed method, of class DS2480BAdapter. If no
+     * higher speed gets through, the adapter falls back to 9600 bps and works
+     * as before.
+     */
+    @Test
+    public void testNegotiateSerialPortSpeedFallback() throws Exception {
+        System.out.println("negotiateSerialPortSpeedFallback");
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        ds2480b.maxSpeed = Speed._9600_BPS;
+        final DS2480BAdapter instance = new DS2480BAdapter(ds2480b.port(), SerialPortSpeed.SPS_115_2);
+        assertEquals(SerialPortSpeed.SPS_9_6, instance.getSerialPortSpeed());
+        assertEquals(OneWireSpeed.FLEX, instance.getSpeedFromBaudrate());
+        assertEquals(ResetResult.PRESENCE, instance.sendReset().resetresult);
+        instance.sendMatchRomRequest(ADDRESS);
+        assertTrue(instance.sendResumeRequest(ADDRESS));
+    }
+
+    /**
+     * Returns true if a Java agent, i.e. a coverage agent, is attached. An
+     * agent may allocate on its own.
+     *
+     * @return true if a Java agent is attached.
+     */
+    static boolean isAgentAttached() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-javaagent") || argument.startsWith("-agentlib") || argument.startsWith("-agentpath")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Polls a sensor through the adapter wrapped in a
+     * {@linkplain LockingOneWireAdapter} like
+     * {@linkplain de.ibapl.onewire4j.OneWireBusManager} does: the conversion
+     * with and without parasite power, Read Scratchpad of the container, the
+     * scratchpads of all containers again into the same readings and a search
+     * pass. Once all requests were sent, only the calls through the proxy of
+     * the simulated port and the timestamps of the conversions allocate.
+     */
+    @Test
+    @DisabledIf("isAgentAttached")
+    public void testPollAllocation() throws IOException {
+        System.out.println("pollAllocation");
+        final int polls = 10_000;
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final OneWireDevice28 container = new OneWireDevice28(ADDRESS);
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(ADDRESS);
+        // +25 °C, TH, TL and 12 bit resolution
+        final byte[] scratchpad = {(byte) 0x90, 0x01, 0x4b, 0x46, OneWireDevice28.Resolution.BITS_12.configurationRegister,
+            (byte) 0xff, 0x00, 0x10, 0x00};
+        scratchpad[8] = CRC8.crc8(scratchpad, 0, 8, (byte) 0);
+        ds2480b.setScratchpad(ADDRESS, scratchpad);
+        final LockingOneWireAdapter instance = new LockingOneWireAdapter(new DS2480BAdapter(ds2480b.port()));
+        final ReadScratchpadRequest request = new ReadScratchpadRequest();
+        final Readings readings = new Readings(List.of(container));
+        final Instant timestamp = Instant.now();
+        final OWSearchIterator searchIterator = new OWSearchIterator();
+        searchIterator.saveState();
+        final BusOperation<Void> poll = adapter -> {
+            TemperatureContainer.sendDoConvertRequestToAll(adapter, false, 0);
+            TemperatureContainer.sendDoConvertRequestToAll(adapter, true, 0);
+            container.readScratchpad(adapter, request);
+            TemperatureContainer.readScratchpads(adapter, readings, timestamp);
+            searchIterator.restoreState();
+            adapter.sendSearchRequest(SearchCommand.SEARCH_ROM, searchIterator);
+            return null;
+        };
+        for (int i = 0; i < polls; i++) {
+            instance.withBus(poll);
+        }
+        assertEquals(25.0, container.getTemperature(request));
+        assertTrue(readings.crcValid[0]);
+        assertEquals(ADDRESS, searchIterator.getAddress());
+
+        final long invocations = ds2480b.getInvocations();
+        final long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < polls; i++) {
+            instance.withBus(poll);
+        }
+        final long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+        final long portCalls = ds2480b.getInvocations() - invocations;
+        System.out.printf("allocated: %d bytes in %d polls with %d port calls%n", allocated, polls, portCalls);
+        // at most the argument array of a proxy call and the two timestamps, nothing else per poll
+        assertTrue(allocated <= portCalls * 24 + polls * 2 * 32, "allocated: " + allocated);
+    }
+
+}
@@ -26,6 +26,11 @@ import de.ibapl.onewire4j.request.OneWireRequest;
 import de.ibapl.onewire4j.request.communication.BitResult;
 import de.ibapl.onewire4j.request.communication.DataToSend;
 import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.PulsePower;
+import de.ibapl.onewire4j.request.communication.PulseRequest;
+import de.ibapl.onewire4j.request.communication.PulseType;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.communication.ResetResult;
 import de.ibapl.onewire4j.request.communication.SingleBitRequest;
 import de.ibapl.onewire4j.request.configuration.CommandType;
 import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
@@ -33,11 +38,16 @@ import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
 import de.ibapl.onewire4j.request.configuration.DataSampleOffsetAndWrite0RecoveryTime;
 import de.ibapl.onewire4j.request.configuration.PullDownSlewRateParam;
 import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
 import de.ibapl.onewire4j.request.configuration.Write1LowTime;
+import de.ibapl.onewire4j.request.data.ByteBufferDataRequest;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -118,4 +128,183 @@ public class DecoderTest {
 
     }
 
+    /**
+     * Test of decodeBitsOfByte method, of class Decoder.
+     */
+    @Test
+    public void testDecodeBitsOfByte() {
+        System.out.println("decodeBitsOfByte");
+        final ByteBuffer buff = ByteBuffer.allocate(8);
+        final Decoder decoder = new Decoder(buff);
+        for (int b = 0; b < 256; b++) {
+            buff.clear();
+            for (int i = 0; i < 8; i++) {
+                // response of a single bit command at flex speed, the read bit in the lowest 2 bits
+                buff.put(((b >>> i) & 0x01) == 0x01 ? (byte) 0b100_1_01_11 : (byte) 0b100_0_01_00);
+            }
+            buff.flip();
+            assertEquals((byte) b, decoder.decodeBitsOfByte());
+        }
+        buff.clear();
+        buff.put((byte) 0b100_1_01_01);
+        buff.flip();
+        assertThrows(IllegalArgumentException.class, () -> decoder.decodeBitsOfByte());
+    }
+
+    /**
+     * Test of decode method, of class Decoder for the configuration responses
+     * 0b0_ccc_vvv_0 of all values.
+     */
+    @Test
+    public void testDecodeConfiguration() throws IOException {
+        System.out.println("decodeConfiguration");
+        final ByteBuffer buff = ByteBuffer.allocate(1);
+        final Decoder decoder = new Decoder(buff);
+        for (StrongPullupDuration spud : StrongPullupDuration.values()) {
+            for (int commandBits : new int[]{0b0_011_000_0, 0b0_000_000_0}) {
+                final OneWireRequest<?> request = ConfigurationReadRequest.of(CommandType.SPUD);
+                request.waitForResponse();
+                buff.clear();
+                buff.put((byte) (commandBits | (spud.ordinal() << 1)));
+                buff.flip();
+                decoder.decode(request);
+                assertEquals(spud, request.response);
+            }
+        }
+        for (int b : new int[]{0b0_001_000_0, 0b0_011_000_1}) {
+            final OneWireRequest<?> request = ConfigurationReadRequest.of(CommandType.SPUD);
+            request.waitForResponse();
+            buff.clear();
+            buff.put((byte) b);
+            buff.flip();
+            assertThrows(IllegalArgumentException.class, () -> decoder.decode(request));
+        }
+    }
+
+    /**
+     * Test of decode method, of class Decoder for a ByteBufferDataRequest. The
+     * responses are views into the buffer of the decoder.
+     */
+    @Test
+    public void testDecodeByteBufferDataRequest() throws IOException {
+        System.out.println("decodeByteBufferDataRequest");
+        final ByteBuffer buff = ByteBuffer.allocateDirect(64);
+        buff.put(new byte[]{(byte) 0xf0, 0x08, 0x00, 0x11, 0x22, 0x33});
+        buff.flip();
+        final Decoder decoder = new Decoder(buff);
+        final ByteBufferDataRequest request = new ByteBufferDataRequest((byte) 0xf0, ByteBuffer.wrap(new byte[]{0x08, 0x00}), 3);
+        assertEquals(6, request.responseSize(StrongPullupDuration.SPUD_524));
+        request.waitForResponse();
+        decoder.decode(request);
+        assertEquals(ByteBuffer.wrap(new byte[]{0x08, 0x00}), request.response);
+        assertEquals(ByteBuffer.wrap(new byte[]{0x11, 0x22, 0x33}), request.responseReadData);
+        assertTrue(request.responseReadData.isDirect());
+        // not copied
+        buff.put(4, (byte) 0x44);
+        assertEquals((byte) 0x44, request.responseReadData.get(1));
+        assertEquals(0, buff.remaining());
+    }
+
+    /**
+     * Test of readAndDecode method, of class Decoder. The responses are read
+     * with one read up to the SPUD configuration read.
+     */
+    @Test
+    public void testReadAndDecode() throws IOException {
+        System.out.println("readAndDecode");
+        final int[] reads = new int[1];
+        final ByteBuffer responses = ByteBuffer.wrap(new byte[]{(byte) 0x3e, (byte) 0xcd, (byte) 0x3e, (byte) 0xcd});
+        final ReadableByteChannel channel = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                reads[0]++;
+                int len = 0;
+                while (dst.hasRemaining()) {
+                    dst.put(responses.get());
+                    len++;
+                }
+                return len;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+        final Decoder decoder = new Decoder(ByteBuffer.allocate(64));
+        final OneWireRequest<?>[] requests = new OneWireRequest<?>[]{
+            ConfigurationWriteRequest.of(StrongPullupDuration.SPUD_POSITIVE_INFINITY),
+            PulseRequest.of(PulsePower.STRONG_PULLUP, PulseType.ARM_AFTER_EVERY_BYTE),
+            ResetDeviceRequest.of(OneWireSpeed.FLEX),
+            ConfigurationReadRequest.of(CommandType.SPUD),
+            PulseRequest.of(PulsePower.STRONG_PULLUP, PulseType.ARM_AFTER_EVERY_BYTE),
+            ResetDeviceRequest.of(OneWireSpeed.FLEX)};
+        for (OneWireRequest<?> request : requests) {
+            request.waitForResponse();
+        }
+        decoder.readAndDecode(channel, requests);
+        assertEquals(2, reads[0]);
+        assertEquals(0, responses.remaining());
+        assertEquals(StrongPullupDuration.SPUD_POSITIVE_INFINITY, requests[0].response);
+        assertEquals(ResetResult.PRESENCE, ((ResetDeviceRequest) requests[2]).response.resetresult);
+        assertEquals(StrongPullupDuration.SPUD_POSITIVE_INFINITY, requests[3].response);
+        assertEquals(ResetResult.PRESENCE, ((ResetDeviceRequest) requests[5]).response.resetresult);
+    }
+
+    /**
+     * Test of readAndDecode method, of class Decoder for ByteBufferDataRequests
+     * which need two reads. The responses of the first read are copied before
+     * the second read overwrites the buffer.
+     */
+    @Test
+    public void testReadAndDecodeByteBufferDataRequests() throws IOException {
+        System.out.println("readAndDecodeByteBufferDataRequests");
+        final int[] reads = new int[1];
+        final ByteBuffer responses = ByteBuffer.wrap(new byte[]{(byte) 0xf0, 0x08, 0x00, 0x11, 0x22, 0x33,
+            0x0f, 0x01, 0x44, 0x55});
+        final ReadableByteChannel channel = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                reads[0]++;
+                int len = 0;
+                while (dst.hasRemaining()) {
+                    dst.put(responses.get());
+                    len++;
+                }
+                return len;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+        final ByteBuffer buff = ByteBuffer.allocateDirect(8);
+        final Decoder decoder = new Decoder(buff);
+        final ByteBufferDataRequest first = new ByteBufferDataRequest((byte) 0xf0, ByteBuffer.wrap(new byte[]{0x08, 0x00}), 3);
+        final ByteBufferDataRequest second = new ByteBufferDataRequest((byte) 0x0f, ByteBuffer.wrap(new byte[]{0x01}), 2);
+        first.waitForResponse();
+        second.waitForResponse();
+        decoder.readAndDecode(channel, first, second);
+        assertEquals(2, reads[0]);
+        assertEquals(0, responses.remaining());
+        assertEquals(ByteBuffer.wrap(new byte[]{0x08, 0x00}), first.response);
+        assertEquals(ByteBuffer.wrap(new byte[]{0x11, 0x22, 0x33}), first.responseReadData);
+        assertEquals(ByteBuffer.wrap(new byte[]{0x01}), second.response);
+        assertEquals(ByteBuffer.wrap(new byte[]{0x44, 0x55}), second.responseReadData);
+        // only the responses of the last read are still views into the buffer
+        assertFalse(first.responseReadData.isDirect());
+        assertTrue(second.responseReadData.isDirect());
+        buff.put(2, (byte) 0x66);
+        assertEquals((byte) 0x66, second.responseReadData.get(0));
+    }
+
 }
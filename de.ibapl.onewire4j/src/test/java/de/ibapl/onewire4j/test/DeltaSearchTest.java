@@ -0,0 +1,113 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.DeltaSearch;
+import de.ibapl.onewire4j.DeviceChangeListener;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class DeltaSearchTest {
+
+    private final static long A = 0x5a000000a8e1b328L;
+    private final static long B = 0x5b000000a8e1b328L;
+    private final static long C = 0x0e0000000b1ddc28L;
+    private final static long D = 0xc4000000a8e1b328L;
+
+    private final List<Long> added = new ArrayList<>();
+    private final List<Long> removed = new ArrayList<>();
+
+    private final DeviceChangeListener listener = new DeviceChangeListener() {
+        @Override
+        public void deviceAdded(long address) {
+            added.add(address);
+        }
+
+        @Override
+        public void deviceRemoved(long address) {
+            removed.add(address);
+        }
+    };
+
+    public DeltaSearchTest() {
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        System.out.println("unchanged");
+        final SimulatedBus bus = new SimulatedBus(A, B, C);
+        final DeltaSearch instance = new DeltaSearch(SearchCommand.SEARCH_ROM, A, B, C);
+        instance.search(bus.adapter(), listener);
+        assertFalse(instance.wasLastSearchFull());
+        assertEquals(0, bus.fullSearches);
+        assertEquals(3, bus.searchPasses);
+        assertTrue(added.isEmpty());
+        assertTrue(removed.isEmpty());
+        assertArrayEquals(new long[]{A, B, C}, instance.getKnownAddresses());
+    }
+
+    @Test
+    public void testRemoved() throws Exception {
+        System.out.println("removed");
+        final SimulatedBus bus = new SimulatedBus(A, C);
+        final DeltaSearch instance = new DeltaSearch(SearchCommand.SEARCH_ROM, A, B, C);
+        instance.search(bus.adapter(), listener);
+        assertFalse(instance.wasLastSearchFull());
+        assertTrue(added.isEmpty());
+        assertEquals(List.of(B), removed);
+    }
+
+    @Test
+    public void testAdded() throws Exception {
+        System.out.println("added");
+        final SimulatedBus bus = new SimulatedBus(A, B, C, D);
+        final DeltaSearch instance = new DeltaSearch(SearchCommand.SEARCH_ROM, A, B, C);
+        instance.search(bus.adapter(), listener);
+        assertTrue(instance.wasLastSearchFull());
+        assertEquals(List.of(D), added);
+        assertTrue(removed.isEmpty());
+        added.clear();
+        instance.search(bus.adapter(), listener);
+        assertFalse(instance.wasLastSearchFull());
+        assertTrue(added.isEmpty());
+    }
+
+    @Test
+    public void testEmptyBus() throws Exception {
+        System.out.println("emptyBus");
+        final DeltaSearch instance = new DeltaSearch(SearchCommand.SEARCH_ROM, A, B);
+        instance.search(new SimulatedBus().adapter(), listener);
+        assertEquals(List.of(A, B), removed);
+        assertEquals(0, instance.getKnownAddresses().length);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.DeviceRegistry;
+import de.ibapl.onewire4j.container.OneWireDevice;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class DeviceRegistryTest {
+
+    private static class TestClock extends Clock {
+
+        long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+    }
+
+    private final static long A = 0x5a000000a8e1b328L;
+    private final static long B = 0x5b000000a8e1b328L;
+    private final static long C = 0x0e0000000b1ddc28L;
+
+    public DeviceRegistryTest() {
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        System.out.println("refresh");
+        final TestClock clock = new TestClock();
+        final DeviceRegistry instance = new DeviceRegistry(Duration.ofSeconds(60), clock);
+        final SimulatedBus bus = new SimulatedBus(A, B, C);
+        instance.search(bus.adapter());
+        assertEquals(3, instance.size());
+        final OneWireDevice a = instance.get(A);
+        assertTrue(a instanceof OneWireDevice28);
+
+        bus.addresses.remove(B);
+        bus.searchPasses = 0;
+        clock.millis = 30_000;
+        assertEquals(2, instance.refresh(bus.adapter()));
+        assertEquals(3, bus.searchPasses);
+        assertEquals(3, instance.size());
+        assertSame(a, instance.get(A));
+        assertTrue(instance.get(B) != null);
+
+        clock.millis = 61_000;
+        assertNull(instance.get(B));
+        assertEquals(2, instance.refresh(bus.adapter()));
+        assertEquals(2, instance.size());
+        assertNull(instance.get(B));
+        assertSame(a, instance.get(A));
+        assertFalse(instance.verify(bus.adapter(), B));
+    }
+
+    /**
+     * The hash table behaves like a map, also after resizes and removes.
+     */
+    @Test
+    public void testTable() {
+        System.out.println("table");
+        final TestClock clock = new TestClock();
+        final DeviceRegistry instance = new DeviceRegistry(Duration.ofSeconds(60), clock);
+        final Map<Long, OneWireDevice> expected = new HashMap<>();
+        final Random random = new Random(4711);
+        final long[] pool = new long[200];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = (random.nextLong() & 0xffffffffffffff00L) | 0x28;
+        }
+        for (int i = 0; i < 20000; i++) {
+            final long address = pool[random.nextInt(pool.length)];
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(address), instance.remove(address));
+            } else {
+                final OneWireDevice device = instance.seen(address);
+                final OneWireDevice old = expected.putIfAbsent(address, device);
+                if (old != null) {
+                    assertSame(old, device);
+                }
+            }
+            assertEquals(expected.size(), instance.size());
+        }
+        for (long address : pool) {
+            assertSame(expected.get(address), instance.get(address));
+        }
+        clock.millis = 61_000;
+        assertEquals(expected.size(), instance.evictExpired());
+        assertEquals(0, instance.size());
+    }
+
+}
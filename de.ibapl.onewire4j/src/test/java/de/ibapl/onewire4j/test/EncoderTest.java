@@ -0,0 +1,320 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.communication.DataToSend;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.communication.ResetResult;
+import de.ibapl.onewire4j.request.communication.SearchAccelerator;
+import de.ibapl.onewire4j.request.communication.SearchAcceleratorCommand;
+import de.ibapl.onewire4j.request.communication.SingleBitRequest;
+import de.ibapl.onewire4j.request.configuration.CommandType;
+import de.ibapl.onewire4j.request.configuration.ConfigurationReadRequest;
+import de.ibapl.onewire4j.request.configuration.ConfigurationWriteRequest;
+import de.ibapl.onewire4j.request.configuration.DataSampleOffsetAndWrite0RecoveryTime;
+import de.ibapl.onewire4j.request.configuration.LoadSensorThreshold;
+import de.ibapl.onewire4j.request.configuration.ProgrammingPulseDuration;
+import de.ibapl.onewire4j.request.configuration.PullDownSlewRateParam;
+import de.ibapl.onewire4j.request.configuration.SerialPortSpeed;
+import de.ibapl.onewire4j.request.configuration.StrongPullupDuration;
+import de.ibapl.onewire4j.request.configuration.Write1LowTime;
+import de.ibapl.onewire4j.request.data.ByteBufferDataRequest;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class EncoderTest {
+
+    public EncoderTest() {
+    }
+
+    /**
+     * Test of encode method, of class Encoder for the RBR configuration write.
+     */
+    @Test
+    public void testEncodeRBR() throws IOException {
+        System.out.println("encodeRBR");
+        final ByteBuffer buff = ByteBuffer.allocate(64);
+        final Encoder encoder = new Encoder(buff);
+        for (SerialPortSpeed sps : SerialPortSpeed.values()) {
+            encoder.encode(ConfigurationWriteRequest.of(sps));
+        }
+        assertEquals(SerialPortSpeed.values().length, buff.position());
+        for (SerialPortSpeed sps : SerialPortSpeed.values()) {
+            assertEquals((byte) (0b0_111_000_1 | (sps.ordinal() << 1)), buff.get(sps.ordinal()), sps.toString());
+        }
+    }
+
+    /**
+     * Test of encodeBitsOfByte method, of class Encoder against 8
+     * SingleBitRequests.
+     */
+    @Test
+    public void testEncodeBitsOfByte() throws IOException {
+        System.out.println("encodeBitsOfByte");
+        final ByteBuffer expected = ByteBuffer.allocate(8);
+        final ByteBuffer buff = ByteBuffer.allocate(8);
+        final Encoder expectedEncoder = new Encoder(expected);
+        final Encoder encoder = new Encoder(buff);
+        for (boolean armPowerDelivery : new boolean[]{false, true}) {
+            for (int b = 0; b < 256; b++) {
+                expected.clear();
+                buff.clear();
+                for (int i = 0; i < 8; i++) {
+                    expectedEncoder.encode(new SingleBitRequest(OneWireSpeed.FLEX,
+                            ((b >>> i) & 0x01) == 0x01 ? DataToSend.WRITE_1_OR_READ_BIT : DataToSend.WRITE_0_BIT,
+                            armPowerDelivery && i == 7));
+                }
+                encoder.encodeBitsOfByte((byte) b, OneWireSpeed.FLEX, armPowerDelivery);
+                assertEquals(expected.flip(), buff.flip(), "byte: " + b);
+            }
+        }
+    }
+
+    /**
+     * Test of encode method, of class Encoder for a ByteBufferDataRequest with
+     * an escaped 0xe3.
+     */
+    @Test
+    public void testEncodeByteBufferDataRequest() throws IOException {
+        System.out.println("encodeByteBufferDataRequest");
+        final ByteBuffer buff = ByteBuffer.allocate(64);
+        final Encoder encoder = new Encoder(buff);
+        final ByteBuffer requestData = ByteBuffer.wrap(new byte[]{0x00, 0x10, Encoder.SWITCH_TO_COMMAND_MODE_BYTE, 0x20});
+        requestData.position(1);
+        encoder.encode(new ByteBufferDataRequest((byte) 0xf0, requestData, 2));
+        buff.flip();
+        assertEquals(ByteBuffer.wrap(new byte[]{(byte) 0xf0, 0x10, Encoder.SWITCH_TO_COMMAND_MODE_BYTE,
+            Encoder.SWITCH_TO_COMMAND_MODE_BYTE, 0x20, Encoder.ONE_WIRE_READ_BYTE_FILLER, Encoder.ONE_WIRE_READ_BYTE_FILLER}), buff);
+        assertEquals(1, requestData.position());
+    }
+
+    /**
+     * Test of encode method, of class Encoder for data with 0xe3 at every
+     * position of the 8 byte words, compared with escaping byte by byte. The
+     * response size does not count the doubled 0xe3, the echo has it only
+     * once.
+     */
+    @Test
+    public void testEncodeEscaped() throws IOException {
+        System.out.println("encodeEscaped");
+        final Random random = new Random(4711);
+        final ByteBuffer buff = ByteBuffer.allocate(128);
+        final Encoder encoder = new Encoder(buff);
+        for (int length = 0; length < 40; length++) {
+            for (int n = 0; n < 20; n++) {
+                final byte[] data = new byte[length];
+                random.nextBytes(data);
+                for (int i = 0; i < length; i++) {
+                    if (random.nextInt(8) == 0) {
+                        data[i] = Encoder.SWITCH_TO_COMMAND_MODE_BYTE;
+                    }
+                }
+                final ByteBuffer expected = ByteBuffer.allocate(128);
+                expected.put((byte) 0x0f);
+                for (byte b : data) {
+                    expected.put(b);
+                    if (b == Encoder.SWITCH_TO_COMMAND_MODE_BYTE) {
+                        expected.put(b);
+                    }
+                }
+                expected.put(Encoder.ONE_WIRE_READ_BYTE_FILLER);
+                expected.flip();
+
+                final DataRequestWithDeviceCommand request = new DataRequestWithDeviceCommand((byte) 0x0f, data, new byte[1]);
+                assertEquals(1 + length + 1, request.responseSize(StrongPullupDuration.SPUD_524));
+                buff.clear();
+                encoder.encode(request);
+                assertEquals(expected, buff.flip(), "length: " + length);
+
+                for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                    final ByteBuffer requestData = ByteBuffer.allocate(length + 3).order(order);
+                    requestData.position(3);
+                    requestData.put(data);
+                    requestData.position(3);
+                    buff.clear();
+                    encoder.encode(new ByteBufferDataRequest((byte) 0x0f, requestData, 1));
+                    assertEquals(expected, buff.flip(), "length: " + length + " " + order);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of encode method, of class Encoder for all configuration reads and
+     * writes. The command code is in bits 4..6 of a write and in bits 1..3 of
+     * a read, the value code in bits 1..3 of a write.
+     */
+    @Test
+    public void testEncodeConfiguration() throws IOException {
+        System.out.println("encodeConfiguration");
+        final ByteBuffer buff = ByteBuffer.allocate(64);
+        final Encoder encoder = new Encoder(buff);
+        final Enum<?>[][] values = new Enum<?>[][]{PullDownSlewRateParam.values(), ProgrammingPulseDuration.values(),
+            StrongPullupDuration.values(), Write1LowTime.values(), DataSampleOffsetAndWrite0RecoveryTime.values(),
+            LoadSensorThreshold.values(), SerialPortSpeed.values()};
+        for (int c = 0; c < values.length; c++) {
+            for (int v = 0; v < 8; v++) {
+                buff.clear();
+                encoder.encode(writeRequestOf(values[c][v]));
+                assertEquals(1, buff.position());
+                assertEquals((byte) (((c + 1) << 4) | (v << 1) | 0b1), buff.get(0), values[c][v].name());
+            }
+        }
+        final CommandType[] commandTypes = {CommandType.PDSRC, CommandType.PPD, CommandType.SPUD, CommandType.W1LT,
+            CommandType.DSO_AND_W0RT, CommandType.LST, CommandType.RBR};
+        for (int c = 0; c < commandTypes.length; c++) {
+            buff.clear();
+            encoder.encode(ConfigurationReadRequest.of(commandTypes[c]));
+            assertEquals((byte) (((c + 1) << 1) | 0b1), buff.get(0), commandTypes[c].toString());
+        }
+        assertThrows(RuntimeException.class, () -> encoder.encode(ConfigurationReadRequest.of(CommandType.SINGLE_BIT)));
+    }
+
+    private static ConfigurationWriteRequest<?> writeRequestOf(Enum<?> value) {
+        if (value instanceof PullDownSlewRateParam v) {
+            return ConfigurationWriteRequest.of(v);
+        } else if (value instanceof ProgrammingPulseDuration v) {
+            return ConfigurationWriteRequest.of(v);
+        } else if (value instanceof StrongPullupDuration v) {
+            return ConfigurationWriteRequest.of(v);
+        } else if (value instanceof Write1LowTime v) {
+            return ConfigurationWriteRequest.of(v);
+        } else if (value instanceof DataSampleOffsetAndWrite0RecoveryTime v) {
+            return ConfigurationWriteRequest.of(v);
+        } else if (value instanceof LoadSensorThreshold v) {
+            return ConfigurationWriteRequest.of(v);
+        } else {
+            return ConfigurationWriteRequest.of((SerialPortSpeed) value);
+        }
+    }
+
+    /**
+     * Encodes and decodes a typical frame: configuration, reset, Match ROM,
+     * read scratchpad and single bits.
+     *
+     * Run with -Donewire4j.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "onewire4j.benchmark", matches = "true")
+    public void benchmarkEncodeDecode() throws IOException {
+        System.out.println("benchmarkEncodeDecode");
+        final int frames = 2_000_000;
+        final OneWireRequest<?>[] requests = new OneWireRequest<?>[]{
+            ConfigurationWriteRequest.of(StrongPullupDuration.SPUD_524),
+            ConfigurationReadRequest.of(CommandType.PDSRC),
+            ResetDeviceRequest.of(OneWireSpeed.FLEX),
+            new DataRequestWithDeviceCommand((byte) 0x55, new byte[]{0x28, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07}),
+            new DataRequestWithDeviceCommand((byte) 0xbe, 0, 9),
+            SearchAcceleratorCommand.of(SearchAccelerator.ON, OneWireSpeed.FLEX),
+            new SingleBitRequest(OneWireSpeed.FLEX, DataToSend.WRITE_1_OR_READ_BIT, false),
+            new SingleBitRequest(OneWireSpeed.FLEX, DataToSend.WRITE_0_BIT, false),
+            ConfigurationWriteRequest.of(SerialPortSpeed.SPS_115_2)};
+        final ByteBuffer responses = ByteBuffer.allocate(64);
+        responses.put((byte) 0x38).put((byte) 0x06).put((byte) 0xcd);
+        responses.put((byte) 0x55).put(new byte[]{0x28, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07});
+        responses.put((byte) 0xbe).put(new byte[9]);
+        responses.put((byte) 0x97).put((byte) 0x84).put((byte) 0x76);
+        responses.flip();
+        final Decoder decoder = new Decoder(responses);
+        final ByteBuffer encoded = ByteBuffer.allocate(64);
+        final Encoder frameEncoder = new Encoder(encoded);
+        long nanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                encoded.clear();
+                responses.rewind();
+                for (OneWireRequest<?> request : requests) {
+                    request.resetState();
+                    frameEncoder.encode(request);
+                    decoder.decode(request);
+                }
+            }
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        System.out.printf("encode and decode: %.1f ns/frame of %d requests%n", (double) nanos / frames, requests.length);
+        assertEquals(ResetResult.PRESENCE, ((ResetDeviceRequest) requests[2]).response.resetresult);
+        assertEquals(SerialPortSpeed.SPS_115_2, requests[8].response);
+    }
+
+    /**
+     * Encodes a memory write of 512 data bytes without and with 0xe3 in it.
+     *
+     * Run with -Donewire4j.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "onewire4j.benchmark", matches = "true")
+    public void benchmarkWriteDataBytes() throws IOException {
+        System.out.println("benchmarkWriteDataBytes");
+        final int writes = 1_000_000;
+        final byte[] plain = new byte[512];
+        new Random(4711).nextBytes(plain);
+        for (int i = 0; i < plain.length; i++) {
+            if (plain[i] == Encoder.SWITCH_TO_COMMAND_MODE_BYTE) {
+                plain[i] = 0;
+            }
+        }
+        final byte[] escaped = plain.clone();
+        escaped[100] = Encoder.SWITCH_TO_COMMAND_MODE_BYTE;
+        escaped[400] = Encoder.SWITCH_TO_COMMAND_MODE_BYTE;
+        final ByteBuffer buff = ByteBuffer.allocateDirect(1024);
+        final Encoder encoder = new Encoder(buff);
+        final DataRequestWithDeviceCommand plainRequest = new DataRequestWithDeviceCommand((byte) 0x0f, plain);
+        final DataRequestWithDeviceCommand escapedRequest = new DataRequestWithDeviceCommand((byte) 0x0f, escaped);
+        long plainNanos = Long.MAX_VALUE;
+        long escapedNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < writes; i++) {
+                buff.clear();
+                encoder.encode(plainRequest.resetState());
+            }
+            plainNanos = Math.min(plainNanos, System.nanoTime() - start);
+            assertEquals(1 + plain.length, buff.position());
+            start = System.nanoTime();
+            for (int i = 0; i < writes; i++) {
+                buff.clear();
+                encoder.encode(escapedRequest.resetState());
+            }
+            escapedNanos = Math.min(escapedNanos, System.nanoTime() - start);
+            assertEquals(1 + escaped.length + 2, buff.position());
+        }
+        System.out.printf("512 bytes without 0xe3: %.1f ns, with 2 x 0xe3: %.1f ns%n",
+                (double) plainNanos / writes, (double) escapedNanos / writes);
+    }
+
+}
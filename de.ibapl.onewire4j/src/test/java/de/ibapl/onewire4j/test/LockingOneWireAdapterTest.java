@@ -0,0 +1,192 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.LockingOneWireAdapter;
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.SearchStatistics;
+import de.ibapl.onewire4j.container.TemperatureContainer;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class LockingOneWireAdapterTest {
+
+    public LockingOneWireAdapterTest() {
+    }
+
+    /**
+     * Test of withBus method, of class LockingOneWireAdapter. The calls within
+     * withBus must not be interleaved with calls of other threads.
+     */
+    @Test
+    public void testWithBus() throws Exception {
+        System.out.println("withBus");
+        final List<Thread> calls = Collections.synchronizedList(new ArrayList<>());
+        final OneWireAdapter recorder = (OneWireAdapter) Proxy.newProxyInstance(OneWireAdapter.class.getClassLoader(),
+                new Class<?>[]{OneWireAdapter.class}, (proxy, method, args) -> {
+                    calls.add(Thread.currentThread());
+                    Thread.yield();
+                    return null;
+                });
+        final LockingOneWireAdapter instance = new LockingOneWireAdapter(recorder);
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 100; j++) {
+                        instance.withBus(adapter -> {
+                            adapter.sendReset();
+                            adapter.sendReset();
+                            return null;
+                        });
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(threads.length * 100 * 2, calls.size());
+        for (int i = 0; i < calls.size(); i += 2) {
+            assertEquals(calls.get(i), calls.get(i + 1));
+        }
+    }
+
+    /**
+     * Test of searchDevices method, of class LockingOneWireAdapter. The
+     * validated search holds the bus for all search passes, a reset of
+     * another thread comes after the search.
+     */
+    @Test
+    public void testValidatedSearchDevices() throws Exception {
+        System.out.println("validatedSearchDevices");
+        final List<Thread> calls = Collections.synchronizedList(new ArrayList<>());
+        final SimulatedBus bus = new SimulatedBus(SimulatedBus.withCrc(0x01), SimulatedBus.withCrc(0x02), SimulatedBus.withCrc(0x03)) {
+
+            @Override
+            protected Collection<Long> present() {
+                calls.add(Thread.currentThread());
+                return super.present();
+            }
+
+            @Override
+            protected Object invokeOther(Method method, Object[] args) throws Throwable {
+                calls.add(Thread.currentThread());
+                return super.invokeOther(method, args);
+            }
+
+        };
+        final LockingOneWireAdapter instance = new LockingOneWireAdapter(bus.adapter());
+        final CountDownLatch searching = new CountDownLatch(1);
+        final Thread other = new Thread(() -> {
+            try {
+                searching.await();
+                instance.sendReset();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        other.start();
+        final List<Long> found = new ArrayList<>();
+        assertTrue(instance.searchDevices(SearchCommand.SEARCH_ROM, (long address) -> {
+            found.add(address);
+            searching.countDown();
+            try {
+                // give the other thread the chance to get between the search passes
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, 2, new SearchStatistics()));
+        other.join();
+        assertEquals(3, found.size());
+        assertEquals(3, bus.searchPasses);
+        assertEquals(4, calls.size());
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread(), Thread.currentThread(), other), calls);
+    }
+
+    /**
+     * Test of reserveBus method, of class LockingOneWireAdapter. While the
+     * strong pullup powers the conversion, another thread gets the bus only
+     * after the pullup is terminated.
+     */
+    @Test
+    public void testReserveBus() throws Exception {
+        System.out.println("reserveBus");
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final OneWireAdapter recorder = (OneWireAdapter) Proxy.newProxyInstance(OneWireAdapter.class.getClassLoader(),
+                new Class<?>[]{OneWireAdapter.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return method.getReturnType() == byte.class ? (byte) 0 : null;
+                });
+        final LockingOneWireAdapter instance = new LockingOneWireAdapter(recorder);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final CompletableFuture<Instant> converted
+                    = TemperatureContainer.sendDoConvertRequestToAllAsync(instance, true, scheduler);
+            final Thread other = new Thread(() -> {
+                try {
+                    instance.sendReset();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            other.start();
+            other.join(100);
+            // waits for the end of the strong pullup
+            assertTrue(other.isAlive());
+            assertFalse(converted.isDone());
+            other.join();
+            converted.get(1, TimeUnit.SECONDS);
+            assertEquals(List.of("sendSkipRomRequest", "getSpeedFromBaudrate", "sendByteWithPower", "sendTerminatePulse", "sendReset"),
+                    calls);
+        } finally {
+            scheduler.shutdownNow();
+        }
+        assertThrows(IllegalStateException.class, () -> instance.releaseBus(a -> null));
+        assertThrows(IllegalStateException.class, () -> instance.reserveBus());
+    }
+
+}
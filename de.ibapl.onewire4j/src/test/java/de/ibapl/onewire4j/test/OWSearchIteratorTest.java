@@ -0,0 +1,201 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.OWSearchIterator;
+import de.ibapl.onewire4j.request.data.RawDataRequest;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OWSearchIteratorTest {
+
+    /**
+     * The bit by bit implementation, to compare the results with.
+     */
+    static class ReferenceSearchIterator {
+
+        int searchLastDiscrepancy = 0xFF;
+        boolean searchFinished;
+        long addr;
+        long discrepancies;
+
+        void interpretSearch(final RawDataRequest searchCommandData) {
+            addr = 0;
+            discrepancies = 0;
+            int temp_last_descrepancy = 0xFF;
+            for (int i = 0; i < 64; i++) {
+                final boolean discrepancyFlag = bitRead(searchCommandData.response, i * 2);
+                final boolean choosenPathFlag = bitRead(searchCommandData.response, i * 2 + 1);
+                if (choosenPathFlag) {
+                    addr |= 1L << i;
+                }
+                if (discrepancyFlag) {
+                    discrepancies |= 1L << i;
+                }
+                if (discrepancyFlag && !choosenPathFlag) {
+                    temp_last_descrepancy = i + 1;
+                }
+            }
+            if (temp_last_descrepancy == 63) {
+                throw new RuntimeException("Error Nothing found request: " + searchCommandData);
+            }
+            if ((temp_last_descrepancy == searchLastDiscrepancy) || (temp_last_descrepancy == 0xFF)) {
+                searchFinished = true;
+            }
+            searchLastDiscrepancy = temp_last_descrepancy;
+            if (searchLastDiscrepancy != 0xFF) {
+                Arrays.fill(searchCommandData.requestData, (byte) 0);
+                for (int i = 0; i < searchLastDiscrepancy - 1; i++) {
+                    if (bitRead(searchCommandData.response, i * 2 + 1)) {
+                        setBit(searchCommandData.requestData, (i * 2 + 1));
+                    }
+                }
+                setBit(searchCommandData.requestData, ((searchLastDiscrepancy - 1) * 2 + 1));
+            }
+        }
+
+        private boolean bitRead(final byte[] bitBuffer, final int address) {
+            return ((bitBuffer[address / 8] >> address % 8) & 0x01) == 0x01;
+        }
+
+        private void setBit(final byte[] bitBuffer, final int address) {
+            bitBuffer[address / 8] |= 0x01 << address % 8;
+        }
+    }
+
+    public OWSearchIteratorTest() {
+    }
+
+    /**
+     * Test of interpretSearch method, of class OWSearchIterator. Random
+     * responses give the same results as the bit by bit implementation.
+     */
+    @Test
+    public void testInterpretSearch() {
+        System.out.println("interpretSearch");
+        final Random random = new Random(4711);
+        for (int run = 0; run < 10000; run++) {
+            final OWSearchIterator instance = new OWSearchIterator();
+            final ReferenceSearchIterator reference = new ReferenceSearchIterator();
+            final RawDataRequest referenceData = new RawDataRequest(new byte[16]);
+            for (int pass = 0; pass < 4; pass++) {
+                random.nextBytes(instance.getSearchCommandData().response);
+                // sparse discrepancies like on a real bus
+                for (int i = 0; i < 16; i++) {
+                    if (random.nextInt(4) != 0) {
+                        instance.getSearchCommandData().response[i] &= (byte) 0xaa;
+                    }
+                }
+                System.arraycopy(instance.getSearchCommandData().response, 0, referenceData.response, 0, 16);
+                RuntimeException expected = null;
+                try {
+                    reference.interpretSearch(referenceData);
+                } catch (RuntimeException e) {
+                    expected = e;
+                }
+                try {
+                    instance.interpretSearch();
+                    assertEquals(null, expected);
+                } catch (RuntimeException e) {
+                    assertTrue(expected != null);
+                    break;
+                }
+                assertEquals(reference.addr, instance.getAddress());
+                assertEquals(reference.discrepancies, instance.getDiscrepancies());
+                assertEquals(reference.searchLastDiscrepancy, instance.getLastDiscrepancy());
+                assertEquals(reference.searchFinished, instance.isSearchFinished());
+                assertArrayEquals(referenceData.requestData, instance.getSearchCommandData().requestData);
+            }
+        }
+    }
+
+    /**
+     * Test of presetPath method, of class OWSearchIterator.
+     */
+    @Test
+    public void testPresetPath() {
+        System.out.println("presetPath");
+        final OWSearchIterator instance = new OWSearchIterator();
+        instance.presetPath(0x8000000000000028L);
+        final byte[] expected = new byte[16];
+        expected[0] = (byte) 0x80;
+        expected[1] = (byte) 0x08;
+        expected[15] = (byte) 0x80;
+        assertArrayEquals(expected, instance.getSearchCommandData().requestData);
+    }
+
+    /**
+     * Compares the time of interpretSearch with the bit by bit implementation.
+     * Run with -Donewire4j.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "onewire4j.benchmark", matches = "true")
+    public void benchmarkInterpretSearch() {
+        System.out.println("benchmarkInterpretSearch");
+        final int passes = 2_000_000;
+        final byte[][] responses = new byte[1024][16];
+        final Random random = new Random(4711);
+        for (byte[] response : responses) {
+            random.nextBytes(response);
+            for (int i = 0; i < 16; i++) {
+                response[i] &= (byte) 0xaa;
+            }
+        }
+        long referenceNanos = Long.MAX_VALUE;
+        long nanos = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            final ReferenceSearchIterator reference = new ReferenceSearchIterator();
+            final RawDataRequest referenceData = new RawDataRequest(new byte[16]);
+            long start = System.nanoTime();
+            for (int i = 0; i < passes; i++) {
+                System.arraycopy(responses[i & 1023], 0, referenceData.response, 0, 16);
+                reference.interpretSearch(referenceData);
+                sink += reference.addr;
+            }
+            referenceNanos = Math.min(referenceNanos, System.nanoTime() - start);
+
+            final OWSearchIterator instance = new OWSearchIterator();
+            final RawDataRequest data = instance.getSearchCommandData();
+            start = System.nanoTime();
+            for (int i = 0; i < passes; i++) {
+                System.arraycopy(responses[i & 1023], 0, data.response, 0, 16);
+                instance.interpretSearch();
+                sink += instance.getAddress();
+            }
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        System.out.printf("bit by bit: %.1f ns/pass, long: %.1f ns/pass (%d)%n",
+                (double) referenceNanos / passes, (double) nanos / passes, sink & 1);
+        assertTrue(nanos < referenceNanos);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import de.ibapl.onewire4j.request.data.SearchCommand;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OWSearchSpliteratorTest {
+
+    private final static long[] ADDRESSES = {0x5a000000a8e1b328L, 0x5b000000a8e1b328L, 0x0e0000000b1ddc28L,
+        0xc4000000a8e1b328L, 0x7a000000a8e1b328L};
+
+    public OWSearchSpliteratorTest() {
+    }
+
+    @Test
+    public void testSearchAddresses() throws Exception {
+        System.out.println("searchAddresses");
+        final SimulatedBus bus = new SimulatedBus(ADDRESSES);
+        final OneWireAdapter adapter = bus.adapter();
+        final long[] found = adapter.searchAddresses(SearchCommand.SEARCH_ROM).toArray();
+        assertEquals(ADDRESSES.length, bus.searchPasses);
+        final long[] expected = ADDRESSES.clone();
+        Arrays.sort(expected);
+        Arrays.sort(found);
+        assertArrayEquals(expected, found);
+
+        bus.searchPasses = 0;
+        assertTrue(adapter.searchAddresses(SearchCommand.SEARCH_ROM).findFirst().isPresent());
+        assertEquals(1, bus.searchPasses);
+
+        bus.searchPasses = 0;
+        assertEquals(2, adapter.searchAddresses(SearchCommand.SEARCH_ROM).limit(2).count());
+        assertEquals(2, bus.searchPasses);
+
+        bus.addresses.clear();
+        bus.searchPasses = 0;
+        assertFalse(adapter.searchAddresses(SearchCommand.SEARCH_ROM).findAny().isPresent());
+        assertEquals(1, bus.searchPasses);
+    }
+
+    @Test
+    public void testSearchContainers() throws Exception {
+        System.out.println("searchContainers");
+        final SimulatedBus bus = new SimulatedBus(ADDRESSES);
+        final List<OneWireContainer> found = bus.adapter().searchContainers(SearchCommand.SEARCH_ROM)
+                .limit(3).collect(Collectors.toList());
+        assertEquals(3, found.size());
+        assertEquals(3, bus.searchPasses);
+        for (OneWireContainer owc : found) {
+            assertTrue(owc instanceof OneWireDevice28);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.OneWireBusManager;
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OneWireBusManagerTest {
+
+    public OneWireBusManagerTest() {
+    }
+
+    private final static long A = SimulatedBus.withCrc(0x0000000000000128L);
+    private final static long B = SimulatedBus.withCrc(0x0000000000000228L);
+    private final static long C = SimulatedBus.withCrc(0x0000000000000328L);
+
+    /**
+     * An adapter that finds one DS18B20 with the address.
+     */
+    private static OneWireAdapter adapterWithDevice(long address) {
+        return new SimulatedBus(address).adapter();
+    }
+
+    @Test
+    public void testDiscover() throws Exception {
+        System.out.println("discover");
+        try (OneWireBusManager instance = new OneWireBusManager()) {
+            assertEquals(0, instance.addBus(adapterWithDevice(A)));
+            assertEquals(1, instance.addBus(adapterWithDevice(B)));
+            instance.discover();
+            assertEquals(0, instance.getBusOf(A));
+            assertEquals(1, instance.getBusOf(B));
+            assertEquals(-1, instance.getBusOf(C));
+            assertEquals(1, instance.getContainers(1).size());
+            assertTrue(instance.getContainers(1).get(0) instanceof OneWireDevice28);
+            assertEquals(0, instance.getSearchStatistics(1).getCrcFailures());
+        }
+    }
+
+    /**
+     * A noisy search pass is retried and counted for its bus, a CRC failure
+     * and an inconsistent response each with its own counter.
+     */
+    @Test
+    public void testDiscoverNoisy() throws Exception {
+        System.out.println("discoverNoisy");
+        try (OneWireBusManager instance = new OneWireBusManager()) {
+            final SimulatedBus noisy = new SimulatedBus(A, C);
+            noisy.noisyPasses = 2;
+            instance.addBus(adapterWithDevice(B));
+            instance.addBus(noisy.adapter());
+            instance.discover();
+            assertEquals(1, instance.getBusOf(A));
+            assertEquals(1, instance.getBusOf(C));
+            assertEquals(2, instance.getContainers(1).size());
+            assertEquals(2, instance.getSearchStatistics(1).getCrcFailures());
+            assertEquals(2, instance.getSearchStatistics(1).getRetries());
+            assertEquals(4, instance.getSearchStatistics(1).getPasses());
+            assertEquals(0, instance.getSearchStatistics(1).getInconsistentResponses());
+            assertEquals(0, instance.getSearchStatistics(0).getCrcFailures());
+
+            // an inconsistent response is retried too, but not counted as CRC failure
+            noisy.inconsistentPasses = 1;
+            instance.getSearchStatistics(1).reset();
+            instance.discover();
+            assertEquals(2, instance.getContainers(1).size());
+            assertEquals(0, instance.getSearchStatistics(1).getCrcFailures());
+            assertEquals(1, instance.getSearchStatistics(1).getInconsistentResponses());
+            assertEquals(1, instance.getSearchStatistics(1).getRetries());
+
+            noisy.noisyPasses = 100;
+            instance.setSearchRetries(1);
+            final List<OneWireContainer> before = instance.getContainers(1);
+            instance.discover();
+            // the devices of the given up search are kept
+            assertEquals(1, instance.getSearchStatistics(1).getAbortedSearches());
+            assertSame(before, instance.getContainers(1));
+            assertEquals(1, instance.getBusOf(A));
+            assertEquals(1, instance.getBusOf(C));
+            assertEquals(0, instance.getBusOf(B));
+        }
+    }
+
+    /**
+     * Both operations must run at the same time to pass the barrier.
+     */
+    @Test
+    public void testSubmitInParallel() throws Exception {
+        System.out.println("submitInParallel");
+        try (OneWireBusManager instance = new OneWireBusManager()) {
+            instance.addBus(adapterWithDevice(A));
+            instance.addBus(adapterWithDevice(B));
+            final CyclicBarrier barrier = new CyclicBarrier(2);
+            final CompletableFuture<Integer> f0 = instance.submit(0, adapter -> {
+                try {
+                    return barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            final CompletableFuture<Integer> f1 = instance.submit(1, adapter -> {
+                try {
+                    return barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            assertEquals(1, f0.get() + f1.get());
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.Decoder;
+import de.ibapl.onewire4j.Encoder;
+import de.ibapl.onewire4j.OneWireRequestPool;
+import de.ibapl.onewire4j.container.OneWireContainer;
+import de.ibapl.onewire4j.container.TemperatureContainer;
+import de.ibapl.onewire4j.container.TemperatureContainer.ReadScratchpadRequest;
+import de.ibapl.onewire4j.request.OneWireRequest;
+import de.ibapl.onewire4j.request.communication.OneWireSpeed;
+import de.ibapl.onewire4j.request.communication.ResetDeviceRequest;
+import de.ibapl.onewire4j.request.communication.ResetDeviceResponse;
+import de.ibapl.onewire4j.request.communication.ResetResult;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import com.sun.management.ThreadMXBean;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OneWireRequestPoolTest {
+
+    private final static long ADDRESS = 0x5a000000a8e1b328L;
+
+    public OneWireRequestPoolTest() {
+    }
+
+    /**
+     * A poll of one sensor: reset, Match ROM and Read Scratchpad, encoded and
+     * decoded in one frame like
+     * {@linkplain de.ibapl.onewire4j.DS2480BAdapter#sendCommands(OneWireRequest...)}.
+     */
+    private static class Poll implements ReadableByteChannel {
+
+        final OneWireRequestPool pool = new OneWireRequestPool();
+        final ReadScratchpadRequest readScratchpadRequest = new ReadScratchpadRequest();
+        final OneWireRequest<?>[] frame = new OneWireRequest<?>[3];
+        final Encoder encoder;
+        final Decoder decoder = new Decoder(ByteBuffer.allocate(64));
+        final ByteBuffer encoded = ByteBuffer.allocate(64);
+        final ByteBuffer responses = ByteBuffer.allocate(64);
+
+        Poll() {
+            encoder = new Encoder(encoded);
+            responses.put((byte) 0xcd);
+            responses.put(Encoder.MATCH_ROM_CMD).put(OneWireContainer.arrayOfAddress(ADDRESS));
+            responses.put(TemperatureContainer.READ_SCRATCHPAD_CMD).put(new byte[9]);
+            responses.flip();
+        }
+
+        void poll() throws IOException {
+            encoded.clear();
+            frame[0] = pool.resetDeviceRequest(OneWireSpeed.FLEX);
+            frame[1] = pool.matchRomRequest(Encoder.MATCH_ROM_CMD, ADDRESS);
+            frame[2] = readScratchpadRequest.resetState();
+            for (OneWireRequest<?> request : frame) {
+                encoder.encode(request);
+            }
+            responses.rewind();
+            decoder.readAndDecode(this, frame);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int len = 0;
+            while (dst.hasRemaining()) {
+                dst.put(responses.get());
+                len++;
+            }
+            return len;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+    }
+
+    /**
+     * Test of resetDeviceRequest method, of class OneWireRequestPool.
+     */
+    @Test
+    public void testResetDeviceRequest() throws IOException {
+        System.out.println("resetDeviceRequest");
+        final OneWireRequestPool pool = new OneWireRequestPool();
+        final Encoder encoder = new Encoder(ByteBuffer.allocate(8));
+        final Decoder decoder = new Decoder(ByteBuffer.wrap(new byte[]{(byte) 0xcd, (byte) 0xce}));
+        final ResetDeviceRequest request = pool.resetDeviceRequest(OneWireSpeed.FLEX);
+        encoder.encode(request);
+        decoder.decode(request);
+        final ResetDeviceResponse response = request.response;
+        assertEquals(ResetResult.PRESENCE, response.resetresult);
+
+        assertSame(request, pool.resetDeviceRequest(OneWireSpeed.FLEX));
+        encoder.encode(request);
+        decoder.decode(request);
+        // filled in place
+        assertSame(response, request.response);
+        assertEquals(ResetResult.ALARM_PRESENCE, response.resetresult);
+        assertEquals(OneWireSpeed.OVERDRIVE, pool.resetDeviceRequest(OneWireSpeed.OVERDRIVE).speed);
+    }
+
+    /**
+     * Test of matchRomRequest method, of class OneWireRequestPool.
+     */
+    @Test
+    public void testMatchRomRequest() {
+        System.out.println("matchRomRequest");
+        final OneWireRequestPool pool = new OneWireRequestPool();
+        final DataRequestWithDeviceCommand request = pool.matchRomRequest(Encoder.MATCH_ROM_CMD, ADDRESS);
+        assertEquals(Encoder.MATCH_ROM_CMD, request.command);
+        assertArrayEquals(OneWireContainer.arrayOfAddress(ADDRESS), request.requestData);
+        assertSame(request, pool.matchRomRequest(Encoder.MATCH_ROM_CMD, 0x28L));
+        assertArrayEquals(OneWireContainer.arrayOfAddress(0x28L), request.requestData);
+        assertEquals(Encoder.OVERDRIVE_MATCH_ROM_CMD, pool.matchRomRequest(Encoder.OVERDRIVE_MATCH_ROM_CMD, ADDRESS).command);
+        assertSame(pool.deviceCommandRequest(Encoder.SKIP_ROM_CMD), pool.deviceCommandRequest(Encoder.SKIP_ROM_CMD));
+    }
+
+    /**
+     * A poll loop with pooled requests and a reused read request allocates
+     * nothing on the heap, once all requests were sent. Skipped with a Java
+     * agent, i.e. a coverage agent, which may allocate on its own.
+     */
+    @Test
+    @DisabledIf("de.ibapl.onewire4j.test.DS2480BAdapterTest#isAgentAttached")
+    public void testSteadyStateAllocation() throws IOException {
+        System.out.println("steadyStateAllocation");
+        final int polls = 100_000;
+        final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final Poll poll = new Poll();
+        for (int i = 0; i < polls; i++) {
+            poll.poll();
+        }
+        assertEquals(ResetResult.PRESENCE, ((ResetDeviceRequest) poll.frame[0]).response.resetresult);
+        assertArrayEquals(OneWireContainer.arrayOfAddress(ADDRESS), (byte[]) poll.frame[1].response);
+
+        final long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < polls; i++) {
+            poll.poll();
+        }
+        final long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+        System.out.printf("allocated: %d bytes in %d polls%n", allocated, polls);
+        // not a single byte per poll, only the measurement itself may allocate
+        assertTrue(allocated < polls, "allocated: " + allocated);
+    }
+
+}
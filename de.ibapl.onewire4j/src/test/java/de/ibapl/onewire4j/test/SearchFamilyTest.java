@@ -0,0 +1,81 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class SearchFamilyTest {
+
+    public SearchFamilyTest() {
+    }
+
+    /**
+     * Test of searchFamily method, of class OneWireAdapter. Only one search
+     * pass per device of the family is needed.
+     */
+    @Test
+    public void testSearchFamily() throws Exception {
+        System.out.println("searchFamily");
+        final SimulatedBus bus = new SimulatedBus();
+        for (long i = 0; i < 40; i++) {
+            bus.addresses.add((i * 0x0123456789abL) << 8 | 0x26);
+            bus.addresses.add((i * 0x0fedcba98765L) << 8 | 0x1d);
+            bus.addresses.add((i * 0x00a5a5a5a5a5L) << 8 | 0x29);
+        }
+        final long[] ds18b20 = {0x5a000000a8e1b328L, 0x5b000000a8e1b328L, 0x0e0000000b1ddc28L, 0xc4000000a8e1b328L, 0x7a000000a8e1b328L};
+        for (long address : ds18b20) {
+            bus.addresses.add(address);
+        }
+        final List<Long> found = new ArrayList<>();
+        bus.adapter().searchFamily((byte) 0x28, found::add);
+        assertEquals(ds18b20.length, found.size());
+        for (long address : ds18b20) {
+            assertTrue(found.contains(address));
+        }
+        assertEquals(ds18b20.length, bus.searchPasses);
+    }
+
+    @Test
+    public void testSearchFamilyNotPresent() throws Exception {
+        System.out.println("searchFamilyNotPresent");
+        final SimulatedBus bus = new SimulatedBus(0x5a000000a8e1b328L, 0x0e0000000b1ddc26L);
+        final List<Long> found = new ArrayList<>();
+        bus.adapter().searchFamily((byte) 0x10, found::add);
+        assertTrue(found.isEmpty());
+        assertEquals(1, bus.searchPasses);
+
+        bus.addresses.clear();
+        bus.searchPasses = 0;
+        bus.adapter().searchFamily((byte) 0x28, found::add);
+        assertTrue(found.isEmpty());
+        assertEquals(1, bus.searchPasses);
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.onewire4j.OWSearchIterator;
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.SearchResponseException;
+import de.ibapl.onewire4j.container.AlarmTemperatureContainer;
+import de.ibapl.onewire4j.request.data.RawDataRequest;
+import de.ibapl.onewire4j.utils.CRC8;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * A bus with devices that answers the search passes like the search
+ * accelerator of the DS2480B. Only the devices in alarming answer an alarm
+ * search. All other calls of the adapter do nothing.
+ *
+ * @author Arne Plöse
+ */
+public class SimulatedBus implements InvocationHandler {
+
+    public final Set<Long> addresses = new LinkedHashSet<>();
+    public final Set<Long> alarming = new LinkedHashSet<>();
+    public int searchPasses;
+    public int fullSearches;
+    /**
+     * The number of the next search passes to disturb, a bit of the address
+     * is flipped like noise on a long cable does.
+     */
+    public int noisyPasses;
+    /**
+     * The number of the next search passes with an inconsistent response.
+     */
+    public int inconsistentPasses;
+
+    public SimulatedBus(long... addresses) {
+        for (long address : addresses) {
+            this.addresses.add(address);
+        }
+    }
+
+    public OneWireAdapter adapter() {
+        return (OneWireAdapter) Proxy.newProxyInstance(OneWireAdapter.class.getClassLoader(),
+                new Class<?>[]{OneWireAdapter.class}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+        switch (method.getName()) {
+            case "sendSearchRequest":
+                return search((Byte) args[0], (OWSearchIterator) args[1]);
+            case "searchDevices":
+                fullSearches++;
+                final OWSearchIterator searchIterator = new OWSearchIterator();
+                while (!searchIterator.isSearchFinished()) {
+                    if (!search((Byte) args[0], searchIterator)) {
+                        return null;
+                    }
+                    ((LongConsumer) args[1]).accept(searchIterator.getAddress());
+                }
+                return null;
+            case "isOpen":
+                return true;
+            default:
+                return invokeOther(method, args);
+        }
+    }
+
+    /**
+     * Returns the devices which answer a search.
+     *
+     * @return the devices on the bus.
+     */
+    protected Collection<Long> present() {
+        return addresses;
+    }
+
+    /**
+     * Handles all calls except the search.
+     */
+    protected Object invokeOther(Method method, Object[] args) throws Throwable {
+        return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+    }
+
+    /**
+     * Every bit the devices on the path send the bit and its complement. If
+     * both values are there, the direction from the request is taken and the
+     * discrepancy flag is set. With no device at all both bits are 1.
+     */
+    private boolean search(byte searchCommand, OWSearchIterator searchIterator) {
+        searchPasses++;
+        if (inconsistentPasses > 0) {
+            inconsistentPasses--;
+            throw new SearchResponseException("Simulated inconsistent response");
+        }
+        final RawDataRequest searchCommandData = searchIterator.getSearchCommandData();
+        Arrays.fill(searchCommandData.response, (byte) 0);
+        List<Long> path = new ArrayList<>(present());
+        if (searchCommand == AlarmTemperatureContainer.ALARM_SEARCH_CMD) {
+            path.retainAll(alarming);
+        }
+        for (int i = 0; i < 64; i++) {
+            final int bit = i;
+            final boolean has0 = path.stream().anyMatch(a -> ((a >>> bit) & 1) == 0);
+            final boolean has1 = path.stream().anyMatch(a -> ((a >>> bit) & 1) == 1);
+            final boolean direction;
+            if (has0 && has1) {
+                setBit(searchCommandData.response, i * 2);
+                direction = ((searchCommandData.requestData[(i * 2 + 1) / 8] >> ((i * 2 + 1) % 8)) & 1) == 1;
+            } else if (!has0 && !has1) {
+                setBit(searchCommandData.response, i * 2);
+                direction = true;
+            } else {
+                direction = has1;
+            }
+            if (direction) {
+                setBit(searchCommandData.response, i * 2 + 1);
+            }
+            path.removeIf(a -> ((a >>> bit) & 1) != (direction ? 1 : 0));
+        }
+        if (noisyPasses > 0) {
+            noisyPasses--;
+            searchCommandData.response[5] ^= 0x08;
+        }
+        searchIterator.interpretSearch();
+        return searchIterator.getAddress() != 0xffffffffffffffffL;
+    }
+
+    /**
+     * Sets the CRC of the address in the upper byte.
+     *
+     * @param address the family code and serial number.
+     * @return the address with a valid CRC.
+     */
+    public static long withCrc(long address) {
+        byte crc = 0;
+        for (int i = 0; i < 7; i++) {
+            crc = CRC8.crc8((byte) (address >>> (i * 8)), crc);
+        }
+        return (address & 0x00ffffffffffffffL) | ((crc & 0xffL) << 56);
+    }
+
+    private static void setBit(byte[] buff, int address) {
+        buff[address / 8] |= 0x01 << (address % 8);
+    }
+
+}
@@ -0,0 +1,453 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test;
+
+import de.ibapl.spsw.api.SerialPortSocket;
+import de.ibapl.spsw.api.Speed;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A serial port with a DS2480B and some devices on its 1-Wire bus, so a
+ * {@linkplain de.ibapl.onewire4j.DS2480BAdapter} can run without hardware.
+ * The adapter understands the command and data mode, the search accelerator
+ * and the communication and configuration commands. The devices answer
+ * reset, Match ROM, Overdrive Match ROM, Skip ROM, Resume ROM, the search and
+ * Read Scratchpad. The bytes get through only if the serial port and the
+ * DS2480B run with the same speed. All bytes written to the port are recorded.
+ *
+ * Reading and writing allocate nothing, so the allocation of the adapter can
+ * be measured.
+ *
+ * @author Arne Plöse
+ */
+public class SimulatedDS2480B implements InvocationHandler {
+
+    private final static int SPEED_OVERDRIVE = 2;
+    private final static int RBR = 7;
+    private final static Speed[] BAUDRATES = {Speed._9600_BPS, Speed._19200_BPS, Speed._57600_BPS, Speed._115200_BPS};
+
+    private enum Phase {
+        IDLE, ROM_COMMAND, MATCH, SEARCH, FUNCTION_COMMAND, READ, WRITE;
+    }
+
+    private final long[] addresses;
+    private final byte[][] scratchpads;
+    private final boolean[] overdrive;
+    private final boolean[] candidates;
+
+    private final byte[] written = new byte[0x10000];
+    private int writtenCount;
+    private final byte[] output = new byte[0x10000];
+    private int outputHead;
+    private int outputTail;
+
+    private final int[] configuration = new int[8];
+    private boolean open = true;
+    private boolean calibrating;
+    private boolean dataMode;
+    private boolean escape;
+    private boolean searchAccelerator;
+    private int speed;
+    private Speed portSpeed = Speed._9600_BPS;
+
+    private Phase phase = Phase.IDLE;
+    private boolean overdriveMatch;
+    private long matchAddress;
+    private int matchIndex;
+    private int searchBit;
+    private int selected = -1;
+    private int resumable = -1;
+    private int readIndex;
+    private long invocations;
+
+    /**
+     * The number of the next Match ROMs whose address echo gets a flipped
+     * bit, like noise on a long cable does.
+     */
+    public int noisyRoms;
+
+    /**
+     * If true, the devices are cut off the bus and no reset gets a presence
+     * pulse.
+     */
+    public boolean disconnected;
+
+    /**
+     * The highest speed the line between the serial port and the DS2480B
+     * carries, like a long cable or a slow level shifter does. Above it all
+     * bytes are lost.
+     */
+    public Speed maxSpeed = Speed._115200_BPS;
+
+    public SimulatedDS2480B(long... addresses) {
+        this.addresses = addresses;
+        scratchpads = new byte[addresses.length][];
+        overdrive = new boolean[addresses.length];
+        candidates = new boolean[addresses.length];
+    }
+
+    /**
+     * Sets the scratchpad the device sends on Read Scratchpad.
+     *
+     * @param address the address of the device.
+     * @param scratchpad the scratchpad including the CRC.
+     */
+    public void setScratchpad(long address, byte... scratchpad) {
+        scratchpads[indexOf(address)] = scratchpad;
+    }
+
+    public SerialPortSocket port() {
+        return (SerialPortSocket) Proxy.newProxyInstance(SerialPortSocket.class.getClassLoader(),
+                new Class<?>[]{SerialPortSocket.class}, this);
+    }
+
+    /**
+     * Returns the bytes written since the last
+     * {@linkplain #clearWritten()}.
+     *
+     * @return the written bytes.
+     */
+    public byte[] getWritten() {
+        return Arrays.copyOf(written, writtenCount);
+    }
+
+    public void clearWritten() {
+        writtenCount = 0;
+    }
+
+    /**
+     * Returns true if the device is listening at overdrive speed.
+     *
+     * @param address the address of the device.
+     * @return true if the device is at overdrive speed.
+     */
+    public boolean isOverdrive(long address) {
+        return overdrive[indexOf(address)];
+    }
+
+    /**
+     * Returns the number of calls to the port. Without inlining every call
+     * through the proxy allocates its argument array, so this bounds what a
+     * measurement of the allocation must allow for the port.
+     *
+     * @return the number of calls to the port.
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        invocations++;
+        switch (method.getName()) {
+            case "isOpen":
+                return open;
+            case "close":
+                open = false;
+                return null;
+            case "write":
+                return write((ByteBuffer) args[0]);
+            case "read":
+                return read((ByteBuffer) args[0]);
+            case "getInBufferBytesCount":
+                return outputTail - outputHead;
+            case "sendBreak":
+                sendBreak();
+                return null;
+            case "setSpeed":
+                portSpeed = (Speed) args[0];
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private int write(ByteBuffer src) {
+        final int result = src.remaining();
+        while (src.hasRemaining()) {
+            final byte b = src.get();
+            if (writtenCount < written.length) {
+                written[writtenCount++] = b;
+            }
+            if (isLinkUp()) {
+                receive(b);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The RBR configuration is the speed of the DS2480B, the inverted
+     * polarities are not simulated.
+     */
+    private boolean isLinkUp() {
+        return portSpeed == BAUDRATES[configuration[RBR] & 0x03] && portSpeed.ordinal() <= maxSpeed.ordinal();
+    }
+
+    private int read(ByteBuffer dst) {
+        final int result = Math.min(dst.remaining(), outputTail - outputHead);
+        dst.put(output, outputHead, result);
+        outputHead += result;
+        if (outputHead == outputTail) {
+            outputHead = 0;
+            outputTail = 0;
+        }
+        return result;
+    }
+
+    private void send(int b) {
+        output[outputTail++] = (byte) b;
+    }
+
+    /**
+     * The break resets the DS2480B, the next reset command is the timing
+     * calibration and gets no response.
+     */
+    private void sendBreak() {
+        outputHead = 0;
+        outputTail = 0;
+        Arrays.fill(configuration, 0);
+        calibrating = true;
+        dataMode = false;
+        escape = false;
+        searchAccelerator = false;
+    }
+
+    private void receive(byte b) {
+        if (dataMode) {
+            if (escape) {
+                escape = false;
+                if (b != (byte) 0xe3) {
+                    dataMode = false;
+                    command(b);
+                    return;
+                }
+            } else if (b == (byte) 0xe3) {
+                escape = true;
+                return;
+            }
+            send(searchAccelerator ? searchByte(b) : data(b));
+        } else {
+            command(b);
+        }
+    }
+
+    private void command(byte b) {
+        final int c = b & 0xff;
+        if (c == 0xe1) {
+            dataMode = true;
+        } else if (c == 0xe3) {
+            // already in command mode
+        } else if ((c & 0x01) == 0) {
+            throw new IllegalArgumentException("Not a command: 0x" + Integer.toHexString(c));
+        } else if ((c & 0x80) == 0) {
+            final int parameter = (c >> 4) & 0x07;
+            if (parameter == 0) {
+                final int read = (c >> 1) & 0x07;
+                send((read << 4) | (configuration[read] << 1));
+            } else {
+                configuration[parameter] = (c >> 1) & 0x07;
+                send(c & 0xfe);
+            }
+        } else {
+            switch (c & 0xe0) {
+                case 0x80 -> {
+                    speed = (c >> 2) & 0x03;
+                    send((c & 0xfc) | ((c & 0x10) != 0 ? 0x03 : 0x00));
+                }
+                case 0xa0 -> {
+                    speed = (c >> 2) & 0x03;
+                    searchAccelerator = (c & 0x10) != 0;
+                }
+                case 0xc0 ->
+                    reset((c >> 2) & 0x03);
+                case 0xe0 -> {
+                    // no pulse response with an infinite strong pullup duration
+                    if ((c & 0x0c) != 0x0c || configuration[3] != 7) {
+                        send(0xec);
+                    }
+                }
+                default ->
+                    throw new IllegalArgumentException("Not a command: 0x" + Integer.toHexString(c));
+            }
+        }
+    }
+
+    /**
+     * A reset at regular speed brings all devices back from overdrive speed,
+     * at overdrive speed only the devices at overdrive speed answer.
+     */
+    private void reset(int resetSpeed) {
+        speed = resetSpeed;
+        if (calibrating) {
+            calibrating = false;
+            return;
+        }
+        boolean presence = false;
+        for (int i = 0; i < addresses.length; i++) {
+            if (resetSpeed != SPEED_OVERDRIVE) {
+                overdrive[i] = false;
+            }
+            presence |= overdrive[i] == (resetSpeed == SPEED_OVERDRIVE);
+        }
+        presence &= !disconnected;
+        phase = Phase.ROM_COMMAND;
+        selected = -1;
+        // DS2480B and presence or no presence
+        send(presence ? 0xcd : 0xcf);
+    }
+
+    private int data(byte b) {
+        switch (phase) {
+            case ROM_COMMAND -> {
+                switch (b) {
+                    case 0x55, 0x69 -> {
+                        phase = Phase.MATCH;
+                        overdriveMatch = b == 0x69;
+                        matchAddress = 0;
+                        matchIndex = 0;
+                    }
+                    case (byte) 0xcc, 0x3c -> {
+                        for (int i = 0; i < addresses.length; i++) {
+                            overdrive[i] |= b == 0x3c;
+                        }
+                        selected = addresses.length == 1 ? 0 : -1;
+                        resumable = -1;
+                        phase = Phase.FUNCTION_COMMAND;
+                    }
+                    case (byte) 0xa5 -> {
+                        selected = resumable;
+                        phase = Phase.FUNCTION_COMMAND;
+                    }
+                    case (byte) 0xf0 -> {
+                        Arrays.fill(candidates, true);
+                        searchBit = 0;
+                        resumable = -1;
+                        phase = Phase.SEARCH;
+                    }
+                    default ->
+                        phase = Phase.WRITE;
+                }
+                return b;
+            }
+            case MATCH -> {
+                matchAddress |= (b & 0xffL) << (matchIndex * 8);
+                int echo = b;
+                if (matchIndex == 0 && noisyRoms > 0) {
+                    noisyRoms--;
+                    echo ^= 0x08;
+                }
+                if (++matchIndex == 8) {
+                    match();
+                }
+                return echo;
+            }
+            case FUNCTION_COMMAND -> {
+                phase = b == (byte) 0xbe && selected >= 0 && scratchpads[selected] != null ? Phase.READ : Phase.WRITE;
+                readIndex = 0;
+                return b;
+            }
+            case READ -> {
+                final byte[] scratchpad = scratchpads[selected];
+                return readIndex < scratchpad.length ? b & scratchpad[readIndex++] : b;
+            }
+            default -> {
+                return b;
+            }
+        }
+    }
+
+    /**
+     * The device listens at the speed it is at, after Overdrive Match ROM the
+     * address must come at overdrive speed.
+     */
+    private void match() {
+        selected = -1;
+        final boolean atOverdrive = speed == SPEED_OVERDRIVE;
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] == matchAddress) {
+                if (overdriveMatch ? atOverdrive : overdrive[i] == atOverdrive) {
+                    selected = i;
+                    overdrive[i] |= overdriveMatch;
+                }
+            }
+        }
+        resumable = selected;
+        phase = Phase.FUNCTION_COMMAND;
+    }
+
+    /**
+     * 4 address bits every byte. The devices on the path send the bit and its
+     * complement. If both values are there, the direction from the request is
+     * taken and the discrepancy flag is set. With no device at all both bits
+     * are 1.
+     */
+    private int searchByte(byte b) {
+        int result = 0;
+        for (int k = 0; k < 4 && searchBit < 64; k++, searchBit++) {
+            boolean has0 = false;
+            boolean has1 = false;
+            for (int i = 0; i < addresses.length; i++) {
+                if (candidates[i]) {
+                    if (((addresses[i] >>> searchBit) & 1) == 1) {
+                        has1 = true;
+                    } else {
+                        has0 = true;
+                    }
+                }
+            }
+            final boolean direction;
+            if (has0 && has1) {
+                result |= 1 << (2 * k);
+                direction = ((b >> (2 * k + 1)) & 1) == 1;
+            } else if (!has0 && !has1) {
+                result |= 1 << (2 * k);
+                direction = true;
+            } else {
+                direction = has1;
+            }
+            if (direction) {
+                result |= 1 << (2 * k + 1);
+            }
+            for (int i = 0; i < addresses.length; i++) {
+                if ((((addresses[i] >>> searchBit) & 1) == 1) != direction) {
+                    candidates[i] = false;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(long address) {
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] == address) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No device: " + Long.toHexString(address));
+    }
+
+}
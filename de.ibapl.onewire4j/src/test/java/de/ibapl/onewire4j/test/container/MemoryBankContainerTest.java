@@ -126,4 +126,21 @@ public class MemoryBankContainerTest {
         }
     }
 
+    /**
+     * Test of readMemory method at overdrive speed, of class MemoryBankContainer.
+     */
+    @org.junit.jupiter.api.Test
+    public void testReadMemoryOverdrive() throws Exception {
+        System.out.println("readMemory overdrive");
+        for (MemoryBankContainer mbc : containers) {
+            final byte[] expected = mbc.readMemory(adapter, 0x00, 128);
+            adapter.setOverdriveEnabled(true);
+            try {
+                Assertions.assertArrayEquals(expected, mbc.readMemory(adapter, 0x00, 128));
+            } finally {
+                adapter.setOverdriveEnabled(false);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,197 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test.container;
+
+import de.ibapl.onewire4j.DS2480BAdapter;
+import de.ibapl.onewire4j.LockingOneWireAdapter;
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.container.AlarmTemperatureContainer;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import de.ibapl.onewire4j.container.TemperatureContainer;
+import de.ibapl.onewire4j.request.data.DataRequestWithDeviceCommand;
+import de.ibapl.onewire4j.test.SimulatedBus;
+import de.ibapl.onewire4j.test.SimulatedDS2480B;
+import de.ibapl.onewire4j.utils.CRC8;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OneWireDevice28Test {
+
+    public OneWireDevice28Test() {
+    }
+
+    @Test
+    public void testResolution() {
+        System.out.println("resolution");
+        final OneWireDevice28 instance = new OneWireDevice28(0x5a000000a8e1b328L);
+        assertEquals(OneWireDevice28.Resolution.BITS_12, instance.getResolution());
+        assertEquals(750, instance.getConversionTimeMillis());
+        final TemperatureContainer.ReadScratchpadRequest request = new TemperatureContainer.ReadScratchpadRequest();
+        // +25.0625 °C with undefined bits set
+        request.responseReadData[0] = (byte) 0x91;
+        request.responseReadData[1] = (byte) 0x01;
+        for (OneWireDevice28.Resolution resolution : OneWireDevice28.Resolution.values()) {
+            request.responseReadData[4] = resolution.configurationRegister;
+            assertEquals(resolution, instance.getResolution(request));
+        }
+        request.responseReadData[4] = OneWireDevice28.Resolution.BITS_9.configurationRegister;
+        assertEquals(25.0, instance.getTemperature(request));
+        request.responseReadData[4] = OneWireDevice28.Resolution.BITS_12.configurationRegister;
+        assertEquals(25.0625, instance.getTemperature(request));
+        // -10.125 °C
+        request.responseReadData[0] = (byte) 0x5e;
+        request.responseReadData[1] = (byte) 0xff;
+        request.responseReadData[4] = OneWireDevice28.Resolution.BITS_11.configurationRegister;
+        assertEquals(-10.125, instance.getTemperature(request));
+    }
+
+    /**
+     * Test of readAll method, of class TemperatureContainer. The resolution is
+     * taken from the scratchpads, so the second readAll holds the strong
+     * pullup only for the conversion time of 9 bits.
+     */
+    @Test
+    public void testReadAllResolution() throws Exception {
+        System.out.println("readAllResolution");
+        final OneWireDevice28 instance = new OneWireDevice28(0x5a000000a8e1b328L);
+        final SimulatedDS2480B ds2480b = new SimulatedDS2480B(instance.getAddress());
+        // +25 °C, TH, TL and 9 bit resolution
+        final byte[] scratchpad = {(byte) 0x90, 0x01, 0x4b, 0x46, OneWireDevice28.Resolution.BITS_9.configurationRegister,
+            (byte) 0xff, 0x00, 0x10, 0x00};
+        scratchpad[8] = CRC8.crc8(scratchpad, 0, 8, (byte) 0);
+        ds2480b.setScratchpad(instance.getAddress(), scratchpad);
+        final DS2480BAdapter adapter = new DS2480BAdapter(ds2480b.port());
+
+        long start = System.nanoTime();
+        TemperatureContainer.Readings readings = TemperatureContainer.readAll(adapter, List.of(instance), true);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(750));
+        assertTrue(readings.crcValid[0]);
+        assertEquals(25.0, readings.temperatures[0]);
+        assertEquals(OneWireDevice28.Resolution.BITS_9, instance.getResolution());
+
+        start = System.nanoTime();
+        readings = TemperatureContainer.readAll(adapter, List.of(instance), true);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(millis >= 94 && millis < 750, "second readAll took: " + millis + " ms");
+        assertTrue(readings.crcValid[0]);
+    }
+
+    @Test
+    public void testCreateWriteScratchpadRequest() {
+        System.out.println("createWriteScratchpadRequest");
+        final OneWireDevice28 instance = new OneWireDevice28(0x5a000000a8e1b328L);
+        final DataRequestWithDeviceCommand request = instance.createWriteScratchpadRequest(-10, 30);
+        assertEquals(TemperatureContainer.WRITE_SCRATCHPAD_CMD, request.command);
+        assertArrayEquals(new byte[]{30, -10, OneWireDevice28.Resolution.BITS_12.configurationRegister}, request.requestData);
+    }
+
+    @Test
+    public void testSearchAlarming() throws Exception {
+        System.out.println("searchAlarming");
+        final OneWireDevice28 a = new OneWireDevice28(0x5a000000a8e1b328L);
+        final OneWireDevice28 b = new OneWireDevice28(0x5b000000a8e1b328L);
+        final OneWireDevice28 c = new OneWireDevice28(0x0e0000000b1ddc28L);
+        final SimulatedBus bus = new SimulatedBus(a.getAddress(), b.getAddress(), c.getAddress());
+        assertTrue(AlarmTemperatureContainer.searchAlarming(bus.adapter(), List.of(a, b, c)).isEmpty());
+        assertEquals(1, bus.searchPasses);
+        bus.alarming.add(c.getAddress());
+        bus.alarming.add(a.getAddress());
+        assertEquals(List.of(a, c), AlarmTemperatureContainer.searchAlarming(bus.adapter(), List.of(a, b, c)));
+    }
+
+    /**
+     * Test of sendDoConvertTRequestAsync method, of class OneWireDevice28. The
+     * end is polled from the start, as long as nobody else uses the bus. A
+     * device which is busy all the time is given up after the conversion
+     * time. While someone else holds the bus, there is no poll and the future
+     * does not complete.
+     */
+    @Test
+    public void testSendDoConvertTRequestAsync() throws Exception {
+        System.out.println("sendDoConvertTRequestAsync");
+        final OneWireDevice28 instance = new OneWireDevice28(0x5a000000a8e1b328L);
+        final AtomicInteger readTimeSlots = new AtomicInteger();
+        final AtomicBoolean converting = new AtomicBoolean(true);
+        final OneWireAdapter device = (OneWireAdapter) Proxy.newProxyInstance(OneWireAdapter.class.getClassLoader(),
+                new Class<?>[]{OneWireAdapter.class}, (proxy, method, args) -> {
+                    if ("sendReadByteRequest".equals(method.getName())) {
+                        readTimeSlots.incrementAndGet();
+                        return converting.get() ? (byte) 0x00 : (byte) 0xff;
+                    }
+                    return null;
+                });
+        final LockingOneWireAdapter adapter = new LockingOneWireAdapter(device);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            long start = System.nanoTime();
+            final CompletableFuture<Instant> polled = instance.sendDoConvertTRequestAsync(adapter, false, scheduler);
+            Thread.sleep(100);
+            assertFalse(polled.isDone());
+            assertTrue(readTimeSlots.get() > 0);
+            converting.set(false);
+            polled.get(1, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(instance.getConversionTimeMillis()));
+
+            converting.set(true);
+            start = System.nanoTime();
+            instance.sendDoConvertTRequestAsync(adapter, false, scheduler).get(2, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(instance.getConversionTimeMillis()));
+
+            final CompletableFuture<Instant> interrupted = instance.sendDoConvertTRequestAsync(adapter, false, scheduler);
+            adapter.withBus(a -> {
+                a.sendReset();
+                final int polls = readTimeSlots.get();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                assertFalse(interrupted.isDone());
+                assertEquals(polls, readTimeSlots.get());
+                return null;
+            });
+            final int polls = readTimeSlots.get();
+            // the read time slot tells nothing after the reset
+            interrupted.get(1, TimeUnit.SECONDS);
+            assertEquals(polls, readTimeSlots.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
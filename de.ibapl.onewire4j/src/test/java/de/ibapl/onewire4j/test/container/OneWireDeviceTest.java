@@ -0,0 +1,64 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test.container;
+
+import de.ibapl.onewire4j.container.DeviceInfo;
+import de.ibapl.onewire4j.container.GenericOneWireDevice;
+import de.ibapl.onewire4j.container.OneWireDevice;
+import de.ibapl.onewire4j.container.OneWireDevice01;
+import de.ibapl.onewire4j.container.OneWireDevice10;
+import de.ibapl.onewire4j.container.OneWireDevice26;
+import de.ibapl.onewire4j.container.OneWireDevice28;
+import de.ibapl.onewire4j.container.OneWireDevice2d;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class OneWireDeviceTest {
+
+    public OneWireDeviceTest() {
+    }
+
+    /**
+     * Test of fromAdress method, of class OneWireDevice. Unknown families get
+     * a GenericOneWireDevice.
+     */
+    @Test
+    public void testFromAdress() {
+        System.out.println("fromAdress");
+        final Class<?>[] deviceClasses = {OneWireDevice01.class, OneWireDevice10.class, OneWireDevice26.class,
+            OneWireDevice28.class, OneWireDevice2d.class};
+        for (Class<?> deviceClass : deviceClasses) {
+            final long address = 0x5a000000a8e1b300L | deviceClass.getAnnotation(DeviceInfo.class).familyCode();
+            final OneWireDevice device = OneWireDevice.fromAdress(address);
+            assertEquals(deviceClass, device.getClass());
+            assertEquals(address, device.getAddress());
+        }
+        final OneWireDevice device = OneWireDevice.fromAdress(0x0e0000000b1ddc3aL);
+        assertEquals(GenericOneWireDevice.class, device.getClass());
+        assertEquals(0x0e0000000b1ddc3aL, device.getAddress());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * OneWire4J - Drivers for the 1-wire protocol https://github.com/aploese/OneWire4J/
+ * Copyright (C) 2026, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.onewire4j.test.container;
+
+import de.ibapl.onewire4j.OneWireAdapter;
+import de.ibapl.onewire4j.container.OneWireDevice2d;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class ResumeContainerTest {
+
+    public ResumeContainerTest() {
+    }
+
+    /**
+     * Test of reselectDevice method, of class ResumeContainer. If the adapter
+     * can not resume, the device is selected again.
+     */
+    @Test
+    public void testReselectDevice() throws Exception {
+        System.out.println("reselectDevice");
+        final List<String> calls = new ArrayList<>();
+        final boolean[] resume = new boolean[1];
+        final OneWireAdapter recorder = (OneWireAdapter) Proxy.newProxyInstance(OneWireAdapter.class.getClassLoader(),
+                new Class<?>[]{OneWireAdapter.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return method.getReturnType() == boolean.class ? resume[0] : null;
+                });
+        final OneWireDevice2d instance = new OneWireDevice2d(0x6b0000016c2c022dL);
+
+        resume[0] = true;
+        instance.reselectDevice(recorder);
+        assertEquals(List.of("sendResumeRequest"), calls);
+
+        calls.clear();
+        resume[0] = false;
+        instance.reselectDevice(recorder);
+        assertEquals(List.of("sendResumeRequest", "sendOverdriveMatchRomRequest"), calls);
+    }
+
+}
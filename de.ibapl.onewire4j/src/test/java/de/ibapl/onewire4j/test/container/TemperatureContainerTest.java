@@ -24,6 +24,7 @@ package de.ibapl.onewire4j.test.container;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import de.ibapl.onewire4j.AdapterFactory;
+import de.ibapl.onewire4j.LockingOneWireAdapter;
 import de.ibapl.onewire4j.OneWireAdapter;
 import de.ibapl.onewire4j.container.OneWireContainer;
 import de.ibapl.onewire4j.container.TemperatureContainer;
@@ -38,9 +39,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.*;
@@ -125,6 +130,40 @@ public class TemperatureContainerTest {
         }
     }
 
+    @Test
+    public void testReadAll() throws Exception {
+        System.out.println("readAll");
+        Assumptions.assumeFalse(containers.isEmpty());
+        final TemperatureContainer.Readings readings = TemperatureContainer.readAll(adapter, containers,
+                TemperatureContainer.isAnyTempDeviceUsingParasitePower(adapter));
+        assertEquals(containers.size(), readings.size());
+        int i = 0;
+        for (TemperatureContainer instance : containers) {
+            assertEquals(instance.getAddress(), readings.addresses[i]);
+            assertTrue(readings.crcValid[i], instance.getAddressAsString());
+            i++;
+        }
+    }
+
+    @Test
+    public void testSendDoConvertRequestToAllAsync() throws Exception {
+        System.out.println("sendDoConvertRequestToAllAsync");
+        Assumptions.assumeFalse(containers.isEmpty());
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final Instant ts = TemperatureContainer.sendDoConvertRequestToAllAsync(new LockingOneWireAdapter(adapter),
+                    TemperatureContainer.isAnyTempDeviceUsingParasitePower(adapter), scheduler).get(2, TimeUnit.SECONDS);
+            assertNotNull(ts);
+            for (TemperatureContainer instance : containers) {
+                TemperatureContainer.ReadScratchpadRequest request = new TemperatureContainer.ReadScratchpadRequest();
+                instance.readScratchpad(adapter, request);
+                assertFalse(instance.isTemperaturePowerOnResetValue(request), instance.getAddressAsString());
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
     @Test
     public void testIsUsingParasitePower() throws Exception {
         System.out.println("testSetGetAlarmsToEEPROM");
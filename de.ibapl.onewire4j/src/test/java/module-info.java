@@ -24,6 +24,7 @@ module de.ibapl.onewire4j.test {
     requires de.ibapl.onewire4j;
     requires org.junit.jupiter.api;
     requires org.junit.jupiter.engine;
+    requires jdk.management;
     requires transitive org.yaml.snakeyaml;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.dataformat.yaml;
@@ -37,6 +37,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ServiceLoader;
 
 /**
@@ -97,21 +98,26 @@ public class Main {
                         throw new RuntimeException(ioe);
                     }
                 });
+                final List<TemperatureContainer> tcs = new LinkedList<>();
+                for (OneWireContainer owc : owcs) {
+                    if (owc instanceof TemperatureContainer) {
+                        tcs.add((TemperatureContainer) owc);
+                    }
+                }
                 while (true) {
-                    TemperatureContainer.sendDoConvertRequestToAll(adapter, parasitePowerNeeded);
+                    final TemperatureContainer.Readings readings = TemperatureContainer.readAll(adapter, tcs, parasitePowerNeeded);
                     log.write((byte) '\n');
                     log.write(Instant.now().toString().getBytes());
+                    int tcIndex = 0;
                     for (OneWireContainer owc : owcs) {
                         if (owc instanceof TemperatureContainer) {
                             final TemperatureContainer tc = (TemperatureContainer) owc;
                             log.write((byte) '\t');
-                            TemperatureContainer.ReadScratchpadRequest request = new TemperatureContainer.ReadScratchpadRequest();
-                            tc.readScratchpad(adapter, request);
-                            if (tc.isTemperaturePowerOnResetValue(request)) {
-                                final double temp = tc.convertAndReadTemperature(adapter, parasitePowerNeeded);
-                                log.write(String.valueOf(temp).getBytes());
+                            double temp = readings.temperatures[tcIndex];
+                            if (readings.powerOnResetValue[tcIndex]) {
+                                temp = tc.convertAndReadTemperature(adapter, parasitePowerNeeded);
                             }
-                            final double temp = tc.getTemperature(request);
+                            tcIndex++;
                             log.write(String.valueOf(temp).getBytes());
                         } else if (owc instanceof OneWireDevice26) {
                             final OneWireDevice26 dev26 = (OneWireDevice26) owc;